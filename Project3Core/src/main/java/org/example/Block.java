@@ -0,0 +1,422 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 03/17/2023
+ *
+ * This Java file is a component of the BlockChain and serves as a Block object.
+ * It contains a constructor and methods to calculate hashes, compute proof of work,
+ * and convert the Block object to a JSON string. A Block may carry a numeric target on top of its
+ * difficulty, which allows proof of work between the 16x steps of whole hex digits. Hashes and targets are
+ Hash256 values; their hex form is only used in the hash input and in JSON. A pruned Block has dropped its data and keeps
+ only its payload digest, the SHA-256 midstate of its index, timestamp and data, which is enough to hash it.
+ */
+
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+
+public class Block {
+
+    // Stores the index of the Block in the Blockchain
+    private int index;
+    // Stores the time when the Block was created
+    private java.sql.Timestamp timeStamp;
+    // Stores the transaction on the Block
+    private java.lang.String data;
+    // Stores the SHA256 hash of a block's parent. This is also called a hash pointer
+    private Hash256 previousHash;
+    private java.math.BigInteger nonce;
+    // Stores the minimum number of left most hex digits needed by a proper hash.
+    private int difficulty;
+    // Stores the largest acceptable hash, or null if only the difficulty applies; 64 uppercase hex digits in JSON
+    private Hash256 target;
+    // Stores true if the data was pruned, null otherwise so that whole Blocks do not show the field
+    private Boolean pruned;
+    // Stores the SHA-256 midstate of index + timestamp + data of a pruned Block
+    private transient Sha256Midstate payloadDigest;
+    // Stores the JSON of this Block once it was serialized, until a setter changes it
+    private transient String json;
+    // Serializes Blocks; Gson instances can be shared between threads
+    private static final Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss.SSS").create();
+
+
+    // Constructor to initialise the values of the instance variables of the Block class
+    Block (int index, java.sql.Timestamp timeStamp, java.lang.String data, int difficulty) {
+        this.index = index;
+        this.timeStamp = timeStamp;
+        this.data = data;
+        this.difficulty = difficulty;
+        this.nonce = BigInteger.valueOf(0);
+    }
+
+    /**
+     Returns a copy of this block, which can be mined while the block itself is still read from the chain.
+     @return the copy
+     */
+    Block copy() {
+        Block copy = new Block(index, timeStamp, data, difficulty);
+        copy.previousHash = previousHash;
+        copy.nonce = nonce;
+        copy.target = target;
+        if (isPruned()) {
+            copy.setPrunedPayload(payloadDigest);
+        }
+        return copy;
+    }
+
+    /**
+     Calculates the SHA-256 hash of the block using its index, timestamp, data, previous hash, nonce and difficulty
+     @return the SHA-256 hash of the block
+     */
+
+    public Hash256 calculateHash() {
+
+        if (isPruned()) {
+            // Finish the hash from the payload digest, the data is gone
+            String rest = String.valueOf(previousHash) + nonce + hashSuffix(difficulty, target);
+            return Hash256.fromBytes(payloadDigest.digest(rest.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        // String whose hash is to be found
+        String hashInput = getHashInput();
+
+        byte[] hashedBytes = new byte[0];
+        try {
+            // Access MessageDigest class for SHA256
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            // Compute the digest
+            byte[] inputBytes = hashInput.getBytes(StandardCharsets.UTF_8);
+            // Hash the input byte array and store the result in another byte array
+            hashedBytes = md.digest(inputBytes);
+        }
+        catch (NoSuchAlgorithmException e) {
+            System.out.println("No SHA-256 available" + e);
+        }
+        // Return the SHA256 hash
+        return Hash256.fromBytes(hashedBytes);
+    }
+
+    /**
+     Returns the part of the hash input that follows the nonce. Blocks without a target hash exactly as before
+     targets were introduced; a target is committed to by the hash so it cannot be changed afterwards.
+     @param difficulty the difficulty of the block
+     @param target the target of the block, or null
+     @return the difficulty followed by the target in hex, if there is one
+     */
+    static String hashSuffix(int difficulty, Hash256 target) {
+        return target == null ? String.valueOf(difficulty) : difficulty + target.toString();
+    }
+
+    /**
+     Encodes transaction data as UTF-8, the charset blocks are hashed in, for stores that keep it as bytes.
+     UTF-8 cannot hold a surrogate without its pair, so such data would come back changed and is refused.
+     @param data the transaction data
+     @return the UTF-8 bytes of the data
+     @throws IllegalArgumentException if the data has an unpaired surrogate
+     */
+    static byte[] dataBytes(String data) {
+        for (int c = 0; c < data.length(); c++) {
+            char ch = data.charAt(c);
+            if (Character.isHighSurrogate(ch) && c + 1 < data.length() && Character.isLowSurrogate(data.charAt(c + 1))) {
+                c++;
+            } else if (Character.isSurrogate(ch)) {
+                throw new IllegalArgumentException("Transaction data has an unpaired surrogate at character " + c);
+            }
+        }
+        return data.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     Checks whether a hash of this block is a valid proof of work: it has to begin with as many zeros
+     as the difficulty and, if the block has a target, must not be above it.
+     @param hash the hash
+     @return true if the hash satisfies the difficulty and the target
+     */
+    public boolean meetsTarget(Hash256 hash) {
+        return meetsTarget(hash, difficulty, target);
+    }
+
+    /**
+     Checks whether a hash is a valid proof of work for a block with the given difficulty and target.
+     @param hash the hash
+     @param difficulty the number of zeros the hash has to begin with
+     @param target the number the hash must not be above, or null
+     @return true if the hash satisfies the difficulty and the target
+     */
+    static boolean meetsTarget(Hash256 hash, int difficulty, Hash256 target) {
+        return hash.leadingZeroDigits() >= difficulty && (target == null || hash.compareTo(target) <= 0);
+    }
+
+    /**
+     Returns the String whose SHA-256 hash is the hash of this block: its index, timestamp, data,
+     previous hash, nonce and difficulty (followed by the target if it has one).
+     @return the hash input of the block
+     @throws IllegalStateException if the block was pruned
+     */
+    public String getHashInput() {
+        if (isPruned()) {
+            throw new IllegalStateException("Block " + index + " was pruned, its hash input is gone");
+        }
+        return index + timeStamp.toString() + data + previousHash + nonce + hashSuffix(difficulty, target);
+    }
+
+    /**
+     Returns the SHA-256 midstate of the start of the hash input: the index, timestamp and data.
+     The hash of the block is finished from it with the previous hash, nonce and difficulty.
+     @return the payload digest of the block
+     */
+    public Sha256Midstate getPayloadDigest() {
+        if (isPruned()) {
+            return payloadDigest;
+        }
+        // Same bytes as the start of getHashInput()
+        return Sha256Midstate.of((index + timeStamp.toString() + data).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     Drops the data of this block, keeping the payload digest so that it can still be hashed and verified.
+     */
+    public void prune() {
+        if (!isPruned()) {
+            setPrunedPayload(getPayloadDigest());
+        }
+    }
+
+    /**
+     Turns this block into a pruned block with the given payload digest, for stores that keep the digest.
+     @param payloadDigest the midstate of index + timestamp + data of the block
+     */
+    void setPrunedPayload(Sha256Midstate payloadDigest) {
+        this.payloadDigest = payloadDigest;
+        this.data = null;
+        this.pruned = true;
+        this.json = null;
+    }
+
+    /***
+     * Function to check whether the data of the Block was pruned
+     * @return True if only the payload digest of the data is left
+     */
+    public boolean isPruned() {
+        return pruned != null && pruned;
+    }
+
+    /**
+     Computes the number of hashes needed on average to mine this block.
+     @return 16 to the power of the difficulty, or 2^256 / (target + 1) if the block has a target
+     */
+    public double getExpectedHashes() {
+        return expectedHashes(difficulty, target);
+    }
+
+    /**
+     Computes the number of hashes needed on average to mine a block with the given difficulty and target.
+     @param difficulty the difficulty of the block
+     @param target the target of the block, or null
+     @return 16 to the power of the difficulty, or 2^256 / (target + 1) if there is a target
+     */
+    static double expectedHashes(int difficulty, Hash256 target) {
+        if (target == null) {
+            return Math.pow(16, difficulty);
+        }
+        return Math.pow(2, 256) / (target.doubleValue() + 1);
+    }
+
+    /**
+     Gives this block the target at which mining takes the given number of hashes on average,
+     and the difficulty of the leading zeros that target implies.
+     @param expectedHashes the average number of hashes mining should take, at least 1
+     */
+    public void setExpectedHashes(double expectedHashes) {
+        BigInteger space = BigInteger.ONE.shiftLeft(256);
+        BigInteger value = new java.math.BigDecimal(Math.max(expectedHashes, 1)).toBigInteger().max(BigInteger.ONE);
+        byte[] bytes = space.divide(value).subtract(BigInteger.ONE).toByteArray();
+        // Keep the last 32 bytes: toByteArray() adds a sign byte, or gives fewer bytes for a small target
+        byte[] word = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, word, 32 - length, length);
+        this.target = Hash256.fromBytes(word);
+        this.difficulty = target.leadingZeroDigits();
+        this.json = null;
+    }
+
+    /**
+
+     Computes the proof of work for the current block by finding a nonce that
+     results in a hash with a specified number of leading zeros. The search starts at the
+     current nonce and runs on the MiningEngine selected by the configuration, see MiningEngines.
+     @return The SHA-256 hash of the block with the correct proof of work
+     */
+
+    public String proofOfWork() {
+        return MiningEngines.getConfigured().mine(this).toString();
+    }
+
+
+    /***
+     * This function overrides Java's toString method to convert the object of the Block
+     * class to a JSON string
+     * @return A JSON representation of all of this block's data is returned
+     */
+    public java.lang.String toString() {
+        return toJson();
+    }
+
+    /**
+     Serializes this block to JSON, reusing the JSON of the last call unless a setter ran since.
+     The timestamp is formatted as yyyy-MM-dd HH:mm:ss.SSS, see
+     http://www.java2s.com/example/java-api/com/google/gson/gsonbuilder/setdateformat-1-18.html
+     @return the JSON of this block
+     */
+    public String toJson() {
+        if (json == null) {
+            json = gson.toJson(this);
+        }
+        return json;
+    }
+
+    // Code to convert from byte array to hexadecimal String
+    // Source: https://stackoverflow.com/questions/9655181/how-to-convert-a-byte-array-to-a-hex-string-in-java
+    private static final char[] HEX_ARRAY = "0123456789ABCDEF".toCharArray();
+
+    /**
+     Converts a byte array to its corresponding hexadecimal string representation.
+     @param bytes the byte array to be converted to hexadecimal string
+     @return the hexadecimal string representation of the input byte array
+     */
+    public static String bytesToHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            int v = b & 0xFF;
+            sb.append(HEX_ARRAY[v >>> 4]);
+            sb.append(HEX_ARRAY[v & 0x0F]);
+        }
+        return sb.toString();
+    }
+
+
+    /***
+     * Function to get transaction details of Block
+     * @return Transaction details of Block, null if the Block was pruned
+     */
+    public String getData() {
+        return data;
+    }
+
+    /***
+     * Function to get difficulty of Block
+     * @return Difficulty of Block
+     */
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    /***
+     * Function to get target of Block
+     * @return Largest acceptable hash, or null if only the difficulty applies
+     */
+    public Hash256 getTarget() {
+        return target;
+    }
+
+    /***
+     * Function to set target of Block
+     * @param target Largest acceptable hash, or null for none
+     */
+    public void setTarget(Hash256 target) {
+        this.target = target;
+        this.json = null;
+    }
+
+    /***
+     * Function to get index of Block
+     * @return Index of Block
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /***
+     * Function to get nonce of Block
+     * @return Nonce of Block
+     */
+    public BigInteger getNonce() {
+        return nonce;
+    }
+
+    /***
+     * Function to get hash of parent of Block
+     * @return Hash of parent of Block
+     */
+    public Hash256 getPreviousHash() {
+        return previousHash;
+    }
+
+    /***
+     * Function to get timestamp of creation of Block
+     * @return Time of creation of Block
+     */
+    public java.sql.Timestamp getTimestamp() {
+        return timeStamp;
+    }
+
+    /***
+     * Function to set transaction details of Block
+     * @param data Transaction details of Block
+     */
+    public void setData(java.lang.String data) {
+        this.data = data;
+        this.json = null;
+    }
+
+    /***
+     * Function to set difficulty of Block
+     * @param difficulty Difficulty of Block
+     */
+    public void setDifficulty(int difficulty) {
+        this.difficulty = difficulty;
+        this.json = null;
+    }
+
+    /***
+     * Function to set nonce of Block
+     * @param nonce Nonce of Block
+     */
+    public void setNonce(BigInteger nonce) {
+        this.nonce = nonce;
+        this.json = null;
+    }
+
+    /***
+     * Function to set index of Block
+     * @param index Index of Block
+     */
+    public void setIndex(int index) {
+        this.index = index;
+        this.json = null;
+    }
+
+    /***
+     * Function to set hash of parent of Block
+     * @param previousHash Hash of parent of Block, Hash256.EMPTY for the genesis Block
+     */
+    public void setPreviousHash(Hash256 previousHash) {
+        this.previousHash = previousHash;
+        this.json = null;
+    }
+
+    /***
+     * Function to set time of creation of Block
+     * @param timestamp Time of creation of Block
+     */
+    public void setTimestamp(java.sql.Timestamp timestamp) {
+        this.timeStamp = timestamp;
+        this.json = null;
+    }
+}
@@ -0,0 +1,1023 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 03/17/2023
+ *
+ This Java file implements a BlockChain using Block objects and provides various functions to manage and
+ verify the blockchain. The BlockChain constructor allows creation of a new blockchain, and functions to add
+ a new block to the chain and compute the number of hashes per second are also available. Additionally,
+ this file provides methods to retrieve blocks by index, get the latest block, get the time of a block,
+ get the total difficulty and expected hashes for the blockchain. The file also includes functions to verify
+ the integrity of the blockchain and to repair it if it becomes corrupted. Finally, it provides a method to
+ convert the blockchain object into a JSON string. New and repaired blocks are mined through a MiningEngine.
+ Blocks can be looked up by their hash and by their transaction through in-memory indexes, which stay
+ correct as long as Blocks are only changed through addBlock, corruptBlock and repairChain. Blocks are
+ added with non-decreasing timestamps, so the Blocks of a time range are found by binary search. The Blocks
+ are kept in a BlockStore, by default the one named by the system property blockchain.storage.
+ Verification records locally trusted checkpoints (the index and hash of every checkpointInterval-th
+ Block it found valid) and later verifications start from the latest checkpoint that still matches,
+ unless a full audit is asked for. Changing a Block drops the checkpoints at and after it.
+ When a prune depth is set (system property blockchain.prune.depth), Blocks more than that many Blocks
+ behind the latest one drop their transaction data and keep only its payload digest, which still lets them
+ be hashed, verified and re-mined. Pruned Blocks can no longer be found by their transaction.
+ */
+
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+public class BlockChain {
+
+    // Stores the blocks of the BlockChain
+    final BlockStore blkChain;
+    // Stores the SHA256 hash of the most recently added Block
+    Hash256 chainHash;
+    // Stores the approximate number of hashes per second on this computer
+    transient int hashesPerSecond;
+    // Stores the engine used to find the proof of work of new and repaired Blocks
+    transient MiningEngine miningEngine;
+    // Stores the position of each Block in the chain, keyed by the hash of the Block's current contents
+    transient HashMap<Hash256, Integer> hashIndex;
+    // Stores the positions of the Blocks holding each transaction, keyed by transaction ID
+    transient HashMap<String, List<Integer>> transactionIndex;
+    // Stores the hash of the Blocks verification left checkpoints at, keyed by position
+    transient TreeMap<Integer, Hash256> checkpoints;
+    // Stores how many Blocks apart verification leaves checkpoints
+    transient int checkpointInterval;
+    // Stores the position of the checkpoint the last verification started from, or -1 if it started at 0
+    transient int lastVerificationStart;
+    // Stores how many of the latest Blocks keep their data, or 0 to keep the data of every Block
+    transient int pruneDepth;
+    // Stores how many Blocks at the start of the chain have been pruned
+    transient int prunedBlocks;
+    // Stores a number that grows with every change to the chain, so responses built from it can be reused;
+    // volatile so it can be read without holding the chain
+    transient volatile long version;
+    // Stores the position of the first Block added, changed or removed since takeFirstChange() was last called
+    transient int firstChange;
+
+    /**
+     Constructor for the BlockChain class. Initializes an empty store of Block objects
+     and sets the chain hash to an empty string, and the hashes per second to 0.
+     Blocks are mined with the MiningEngine and kept in the BlockStore selected by the configuration.
+     */
+    BlockChain() {
+        this(MiningEngines.getConfigured());
+    }
+
+    /**
+     Constructor for a BlockChain whose Blocks are mined with the given MiningEngine.
+     @param miningEngine the engine that finds the proof of work of new and repaired Blocks
+     */
+    BlockChain(MiningEngine miningEngine) {
+        this(miningEngine, BlockStores.getConfigured());
+    }
+
+    /**
+     Constructor for a BlockChain whose Blocks are mined with the given MiningEngine and kept in the given store.
+     @param miningEngine the engine that finds the proof of work of new and repaired Blocks
+     @param blockStore the empty store to keep the Blocks in
+     */
+    BlockChain(MiningEngine miningEngine, BlockStore blockStore) {
+        blkChain = blockStore;
+        chainHash = Hash256.EMPTY;
+        hashesPerSecond = 0;
+        this.miningEngine = miningEngine;
+        hashIndex = new HashMap<>();
+        transactionIndex = new HashMap<>();
+        checkpoints = new TreeMap<>();
+        checkpointInterval = Integer.getInteger("blockchain.checkpoint.interval", 1000);
+        lastVerificationStart = -1;
+        pruneDepth = Integer.getInteger("blockchain.prune.depth", 0);
+        prunedBlocks = 0;
+        version = 0;
+        firstChange = 0;
+    }
+
+    /***
+     * Function to add a new Block to the BlockChain
+     * @param newBlock Block to be added to the BlockChain
+     */
+    public void addBlock(Block newBlock) {
+        addBlock(newBlock, MiningCancellation.NONE);
+    }
+
+    /***
+     * Function to add a new Block to the BlockChain, giving up if mining is cancelled
+     * @param newBlock Block to be added to the BlockChain
+     * @param cancellation Decides when mining the Block has to stop
+     * @throws MiningCancelledException if mining stopped first; the chain is then unchanged
+     */
+    public void addBlock(Block newBlock, MiningCancellation cancellation) {
+        // Update chainHash to be the hash of the new block that is being added
+        chainHash = mine(newBlock, cancellation);
+        // Add new block to the array list
+        blkChain.add(newBlock);
+        version++;
+        changedFrom(blkChain.size() - 1);
+        index(blkChain.size() - 1, chainHash, newBlock.getData());
+        if (pruneDepth > 0) {
+            prune();
+        }
+    }
+
+    /**
+     Mines a Block without adding it to the chain, so that the chain can be read, and changed, while the Block
+     is mined. Add the Block with appendBlock(), which checks that it still follows the chain hash.
+     @param block the Block to mine
+     @param cancellation Decides when mining the Block has to stop
+     @return the hash of the mined Block
+     @throws MiningCancelledException if mining stopped first; the Block keeps the nonce it had
+     */
+    public Hash256 mineBlock(Block block, MiningCancellation cancellation) {
+        return mine(block, cancellation);
+    }
+
+    /**
+     Prunes the Blocks that are more than pruneDepth Blocks behind the latest one and not pruned yet.
+     Their hashes do not change, so the hash index and the checkpoints stay as they are.
+     @return the number of Blocks pruned
+     */
+    public int prune() {
+        int pruned = 0;
+        for (; pruneDepth > 0 && prunedBlocks < blkChain.size() - pruneDepth; prunedBlocks++) {
+            if (blkChain.isPruned(prunedBlocks)) {
+                continue;
+            }
+            Block block = blkChain.get(prunedBlocks);
+            unindexTransaction(prunedBlocks, block.getData());
+            block.prune();
+            blkChain.set(prunedBlocks, block);
+            pruned++;
+        }
+        if (pruned > 0) {
+            version++;
+        }
+        return pruned;
+    }
+
+    /**
+     Appends a Block that was mined elsewhere, for instance by the leader this chain replicates. The Block is
+     checked with a single hash instead of being mined again.
+     @param block the Block to append
+     @return the hash of the Block, now the chain hash
+     @throws IllegalArgumentException if the Block is not the next one of the chain, does not link to the
+     chain hash, or its hash does not meet its difficulty or target
+     */
+    public Hash256 appendBlock(Block block) {
+        int i = blkChain.size();
+        if (block.getIndex() != i) {
+            throw new IllegalArgumentException("Block " + block.getIndex() + " is not the next block, " + i);
+        }
+        if (!chainHash.equals(block.getPreviousHash())) {
+            throw new IllegalArgumentException("Block " + i + " does not link to the chain hash " + chainHash);
+        }
+        Hash256 hash = block.calculateHash();
+        if (!block.meetsTarget(hash)) {
+            throw new IllegalArgumentException("Block " + i + " has a hash that does not meet its difficulty");
+        }
+        append(block, hash);
+        return hash;
+    }
+
+    /**
+     Appends a Block saved earlier by this chain, as it was saved: it is not checked, so a chain that was
+     corrupted before it was saved is still corrupted, and verification tells so. The indexes are rebuilt
+     as for any other Block.
+     @param block the Block to append
+     @return the hash of the Block, now the chain hash
+     @throws IllegalArgumentException if the Block is not the next one of the chain
+     */
+    public Hash256 restoreBlock(Block block) {
+        if (block.getIndex() != blkChain.size()) {
+            throw new IllegalArgumentException("Block " + block.getIndex() + " is not the next block, " + blkChain.size());
+        }
+        Hash256 hash = block.calculateHash();
+        append(block, hash);
+        return hash;
+    }
+
+    /**
+     Adds a Block whose proof of work is already known to the end of the chain.
+     @param block the Block
+     @param hash the hash of the Block
+     */
+    private void append(Block block, Hash256 hash) {
+        int i = blkChain.size();
+        blkChain.add(block);
+        chainHash = hash;
+        version++;
+        changedFrom(i);
+        index(i, hash, block.getData());
+        if (pruneDepth > 0) {
+            prune();
+        }
+    }
+
+    /**
+     Removes the Blocks from a position to the end of the chain. The chain hash becomes the hash of the
+     last Block kept.
+     @param size the number of Blocks to keep
+     @throws IndexOutOfBoundsException if the chain does not have that many Blocks
+     */
+    public void truncate(int size) {
+        if (size < 0 || size > blkChain.size()) {
+            throw new IndexOutOfBoundsException("Cannot truncate " + blkChain.size() + " blocks to " + size);
+        }
+        blkChain.truncate(size);
+        version++;
+        changedFrom(size);
+        chainHash = size == 0 ? Hash256.EMPTY : blkChain.computeHash(size - 1);
+        prunedBlocks = Math.min(prunedBlocks, size);
+        dropCheckpointsFrom(size);
+        reindex();
+    }
+
+    /***
+     * Function to change the transaction data of a Block without re-mining it, which breaks the chain
+     * @param i The position of the Block to corrupt
+     * @param data The new transaction data of the Block
+     * @throws IllegalStateException if the Block was pruned
+     * @throws IllegalArgumentException if the data is null or has an unpaired surrogate; the Block is unchanged
+     */
+    public void corruptBlock(int i, String data) {
+        if (blkChain.isPruned(i)) {
+            throw new IllegalStateException("Block " + i + " was pruned and has no data to change");
+        }
+        // Check the data before the Block leaves the indexes, so every store refuses the same data up front
+        if (data == null) {
+            throw new IllegalArgumentException("Transaction data is missing");
+        }
+        Block.dataBytes(data);
+        Block block = blkChain.get(i);
+        unindex(i, block.calculateHash(), block.getData());
+        block.setData(data);
+        blkChain.set(i, block);
+        version++;
+        changedFrom(i);
+        index(i, block.calculateHash(), data);
+        dropCheckpointsFrom(i);
+    }
+
+    /**
+     Returns the ID of a transaction: the SHA-256 hash of its data in hexadecimal.
+     @param data the transaction data
+     @return the transaction ID
+     */
+    public static String transactionId(String data) {
+        byte[] hashedBytes = new byte[0];
+        try {
+            hashedBytes = MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            System.out.println("No SHA-256 available" + e);
+        }
+        return bytesToHex(hashedBytes);
+    }
+
+    /**
+     Looks up a Block by the hash of its current contents.
+     @param hash the hash of the Block
+     @return the Block, or null if no Block in the chain has that hash
+     */
+    public Block findBlockByHash(Hash256 hash) {
+        Integer i = hashIndex.get(hash);
+        return i == null ? null : blkChain.get(i);
+    }
+
+    /**
+     Looks up the Blocks holding a transaction.
+     @param transactionId the ID of the transaction, see transactionId(), in either case
+     @return the Blocks holding the transaction in chain order, empty if there are none
+     */
+    public List<Block> findBlocksByTransactionId(String transactionId) {
+        List<Integer> positions = transactionIndex.getOrDefault(transactionId.toUpperCase(), Collections.emptyList());
+        List<Block> blocks = new ArrayList<>(positions.size());
+        for (int i : positions) {
+            blocks.add(blkChain.get(i));
+        }
+        return blocks;
+    }
+
+    /**
+     Looks up the Blocks holding a transaction.
+     @param data the transaction data
+     @return the Blocks holding the transaction in chain order, empty if there are none
+     */
+    public List<Block> findBlocksByTransaction(String data) {
+        return findBlocksByTransactionId(transactionId(data));
+    }
+
+    /**
+     Returns the Blocks whose timestamps lie in a time range. The result is a read-only view of the chain,
+     found by binary search, so it costs O(log n) no matter how many Blocks it holds.
+     @param from the start of the range, inclusive
+     @param to the end of the range, inclusive
+     @return the Blocks in the range in chain order, empty if there are none
+     */
+    public List<Block> getBlocksBetween(Timestamp from, Timestamp to) {
+        int start = firstBlockAfter(from, false);
+        int end = Math.max(start, firstBlockAfter(to, true));
+        return new AbstractList<Block>() {
+            @Override
+            public Block get(int i) {
+                return blkChain.get(start + Objects.checkIndex(i, end - start));
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    /**
+     Binary searches the timestamps of the Blocks, which never decrease along the chain.
+     @param time the time to search for
+     @param inclusive whether Blocks with exactly that time count as before it
+     @return the position of the first Block after the time, or the chain size if there is none
+     */
+    private int firstBlockAfter(Timestamp time, boolean inclusive) {
+        int low = 0;
+        int high = blkChain.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int order = Long.compare(blkChain.getTimeMillis(middle), time.getTime());
+            if (order < 0 || (inclusive && order == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     Adds a Block to the indexes.
+     @param i the position of the Block
+     @param hash the hash of the Block's current contents
+     @param data the transaction data of the Block, null if it was pruned
+     */
+    private void index(int i, Hash256 hash, String data) {
+        hashIndex.put(hash, i);
+        if (data == null) {
+            return;
+        }
+        List<Integer> positions = transactionIndex.computeIfAbsent(transactionId(data),
+                k -> new ArrayList<>());
+        // Keep the positions sorted, so lookups return Blocks in chain order
+        int at = Collections.binarySearch(positions, i);
+        if (at < 0) {
+            positions.add(-at - 1, i);
+        }
+    }
+
+    /**
+     Removes a Block from the indexes.
+     @param i the position of the Block
+     @param hash the hash the Block was indexed with
+     @param data the transaction data the Block was indexed with
+     */
+    private void unindex(int i, Hash256 hash, String data) {
+        hashIndex.remove(hash, i);
+        unindexTransaction(i, data);
+    }
+
+    /**
+     Removes a Block from the transaction index.
+     @param i the position of the Block
+     @param data the transaction data the Block was indexed with, null if it was pruned
+     */
+    private void unindexTransaction(int i, String data) {
+        if (data == null) {
+            return;
+        }
+        String id = transactionId(data);
+        List<Integer> positions = transactionIndex.get(id);
+        if (positions != null) {
+            positions.remove((Integer) i);
+            if (positions.isEmpty()) {
+                transactionIndex.remove(id);
+            }
+        }
+    }
+
+    /**
+     Rebuilds the indexes from the Blocks, after their contents changed.
+     */
+    void reindex() {
+        hashIndex.clear();
+        transactionIndex.clear();
+        for (int i = 0; i < blkChain.size(); i++) {
+            Block block = blkChain.get(i);
+            index(i, block.calculateHash(), block.getData());
+        }
+    }
+
+    /**
+
+     Computes the number of hashes per second that can be generated by the system.
+     The method calculates the time it takes to compute 2 million SHA-256 hashes of the string "00000000",
+     and computes the hashes per second based on that time.
+     */
+    public void computeHashesPerSecond() {
+        hashesPerSecond = measureHashesPerSecond(2000000);
+        version++;
+    }
+
+    /**
+     Measures the number of hashes per second that can be generated by the system, without changing the
+     chain, so that it can run on another thread than the one using the chain.
+     @param hashes the number of SHA-256 hashes of the string "00000000" to time; fewer are faster but rougher
+     @return the hashes per second
+     */
+    public int measureHashesPerSecond(int hashes) {
+
+        // Time with nanoseconds, since short measurements take only a few milliseconds
+        long t1 = System.nanoTime();
+        // Compute hashes for the string "00000000" the given number of times
+        for (int i = 1; i <= hashes; i++) {
+            computeSHA256("00000000");
+        }
+        long t2 = System.nanoTime();
+        double timeDifference = (t2 - t1) / 1e6;
+        // timeDifference is in milliseconds
+        return (int) (hashes / (Math.max(timeDifference, 0.001) / 1000));
+    }
+
+    /***
+     * Function to set the hashes per second, for instance to one measured earlier on this computer
+     * @param hashesPerSecond The number of hashes computed per second
+     */
+    public void setHashesPerSecond(int hashesPerSecond) {
+        this.hashesPerSecond = hashesPerSecond;
+        version++;
+    }
+
+    /**
+     Returns the position of the first Block added, changed or removed since the last call, and starts
+     tracking again. The Blocks before it are as they were at the last call; pruning does not count as a
+     change, since it keeps the hash of every Block. Meant for a single reader that keeps a copy of the
+     chain up to date, such as the state file of the server.
+     @return the position of the first changed Block, or the chain size if none changed
+     */
+    public int takeFirstChange() {
+        int first = Math.min(firstChange, blkChain.size());
+        firstChange = Integer.MAX_VALUE;
+        return first;
+    }
+
+    /**
+     Records that the Blocks from a position on were added, changed or removed, see takeFirstChange().
+     @param i the position of the first Block that changed
+     */
+    private void changedFrom(int i) {
+        firstChange = Math.min(firstChange, i);
+    }
+
+    /**
+
+     Returns the Block at the specified index in the blockchain. Depending on the BlockStore this may be a
+     copy, so Blocks are changed through corruptBlock() and repairChain() rather than their setters.
+     @param i the index of the Block to retrieve
+     @return the Block at the specified index
+     */
+    public Block getBlock(int i) {
+        return blkChain.get(i);
+    }
+
+    /**
+
+     Returns the current hash value of the blockchain.
+     @return the current hash value of the blockchain, Hash256.EMPTY while the chain is empty
+     */
+    public Hash256 getChainHash() {
+        return chainHash;
+    }
+
+    /**
+     Returns the header of a Block, which is enough to check its hash without its data.
+     @param i the index of the Block
+     @return the header of the Block
+     */
+    public BlockHeader getHeader(int i) {
+        return BlockHeader.of(blkChain, i);
+    }
+
+    /***
+     * Function to get the version of the chain, which changes whenever its Blocks, its chain hash or its
+     * hashes per second do
+     * @return The version of the chain
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /***
+     * Function to get the engine that mines the Blocks of this chain
+     * @return The MiningEngine of this chain
+     */
+    public MiningEngine getMiningEngine() {
+        return miningEngine;
+    }
+
+    /***
+     * Function to set the engine that mines the Blocks of this chain
+     * @param miningEngine The MiningEngine to mine new and repaired Blocks with
+     */
+    public void setMiningEngine(MiningEngine miningEngine) {
+        this.miningEngine = miningEngine;
+    }
+
+    /***
+     * Function to get the store the Blocks of this chain are kept in
+     * @return The BlockStore of this chain
+     */
+    public BlockStore getBlockStore() {
+        return blkChain;
+    }
+
+    /***
+     * Returns the size of the chain in blocks
+     * @return The size of the chain in blocks
+     */
+    public int getChainSize() {
+        return blkChain.size();
+    }
+
+    /***
+     * Function to get hashes per second
+     * @return The instance variable approximating the number of hashes per second
+     */
+    public int getHashesPerSecond() {
+        return hashesPerSecond;
+    }
+
+    /***
+     * Function to get a reference to the most recently added Block
+     * @return The latest Block object in the blockchain.
+     */
+    public Block getLatestBlock() {
+        return blkChain.get(blkChain.size() - 1);
+    }
+
+    /***
+     * Function to get the current system time
+     * @return The current system time
+     */
+    public static java.sql.Timestamp getTime() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+
+    /**
+
+     Calculates the total difficulty of the blockchain by summing up the difficulty of each block in the blockchain.
+     @return the total difficulty of the blockchain.
+     */
+    public int getTotalDifficulty() {
+
+        int total = 0;
+        for (int i = 0; i < blkChain.size(); i++) {
+            total = total + blkChain.getDifficulty(i);
+        }
+        return total;
+    }
+
+    /***
+     * Function to compute and return the expected number of hashes required for the entire chain.
+     * Blocks with a target count 2^256 / (target + 1) hashes instead of 16^difficulty
+     * @return The total expected hashes for the blockchain
+     */
+    public double getTotalExpectedHashes() {
+
+        // Stores the total expected hashes for the chain
+        double totalHashes = 0;
+        // Loop over all the blocks in the blockchain and increment the
+        // count of the total expected hashes
+        for (int i = 0; i < blkChain.size(); i++) {
+            totalHashes = totalHashes + Block.expectedHashes(blkChain.getDifficulty(i), blkChain.getTarget(i));
+        }
+        // The total expected hashes for the chain
+        return totalHashes;
+    }
+
+    /**
+
+     Checks the validity of the blockchain by verifying the hash of each block and its link to the previous block.
+     Starts from the latest checkpoint that still matches the chain, see isChainValid(boolean).
+     @return a string indicating whether the chain is valid or not. Returns "TRUE" if the chain is valid, otherwise
+     returns an error message detailing the issue found in the chain.
+     */
+    public String isChainValid() {
+        return isChainValid(false);
+    }
+
+    /**
+     Checks the validity of the blockchain like isChainValid(). Unless a full audit is asked for, the Blocks up to the
+     latest checkpoint whose Block still has the recorded hash are trusted and only the Blocks from there on are
+     checked. Every checkpointInterval-th Block found valid is recorded as a checkpoint.
+     @param fullAudit true to ignore the checkpoints and check every Block
+     @return "TRUE" if the chain is valid, otherwise an error message detailing the issue found in the chain
+     */
+    public String isChainValid(boolean fullAudit) {
+        VerifyEvent event = new VerifyEvent();
+        event.begin();
+        int start = fullAudit ? -1 : latestValidCheckpoint();
+        lastVerificationStart = start;
+        String result = checkBlocks(Math.max(start, 0), event);
+        if (event.shouldCommit()) {
+            event.chainSize = blkChain.size();
+            event.checkpoint = start;
+            event.fullAudit = fullAudit;
+            event.valid = result.equals("TRUE");
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     Checks the Blocks from a position to the end of the chain for isChainValid(boolean).
+     @param start the position of the first Block to check
+     @param event counts the Blocks checked
+     @return "TRUE" if they are valid, otherwise an error message detailing the issue found
+     */
+    private String checkBlocks(int start, VerifyEvent event) {
+        for (int i = start; i < blkChain.size(); i++) {
+            event.blocksScanned++;
+            // Read the fields straight from the store, so a scan does not have to create every Block
+            Hash256 hash = blkChain.computeHash(i);
+            int difficulty = blkChain.getDifficulty(i);
+            Hash256 target = blkChain.getTarget(i);
+            String leadingZeros = "0".repeat(difficulty);
+
+            if (hash.leadingZeroDigits() < difficulty) {
+                return "Improper hash on node " + i + ". Does not begin with " + leadingZeros;
+            }
+
+            if (!Block.meetsTarget(hash, difficulty, target)) {
+                return "Improper hash on node " + i + ". Above target " + target;
+            }
+
+            if (i < blkChain.size() - 1 && !hash.equals(blkChain.getPreviousHash(i + 1))) {
+                return "Hash of Block " + i + " does not match with previous hash of Block " + (i + 1);
+            }
+
+            if (i == blkChain.size() - 1 && !hash.equals(chainHash)) {
+                return "Hash of the last Block (Block " + i + ") does not match with Chain Hash!";
+            }
+
+            // Blocks 0 to i are valid now
+            if (checkpointInterval > 0 && (i + 1) % checkpointInterval == 0) {
+                checkpoints.put(i, hash);
+            }
+        }
+        return "TRUE";
+    }
+
+    /**
+     Mines a Block with the mining engine of this chain, recording a MiningEvent.
+     @param block the Block to mine
+     @param cancellation decides when mining has to stop
+     @return the hash of the Block
+     @throws MiningCancelledException if mining stopped before a nonce was found
+     */
+    private Hash256 mine(Block block, MiningCancellation cancellation) {
+        MiningEvent event = new MiningEvent();
+        event.begin();
+        BigInteger startNonce = block.getNonce();
+        Hash256 hash = null;
+        try {
+            hash = miningEngine.mine(block, cancellation);
+            return hash;
+        } finally {
+            if (event.shouldCommit()) {
+                event.blockIndex = block.getIndex();
+                event.difficulty = block.getDifficulty();
+                event.engine = miningEngine.getName();
+                event.stopped = hash == null;
+                event.noncesTried = hash == null ? 0 : block.getNonce().subtract(startNonce).longValue() + 1;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     Finds the latest checkpoint whose Block still has the recorded hash, dropping the ones that do not.
+     @return the position of the checkpoint, or -1 if there is none
+     */
+    private int latestValidCheckpoint() {
+        while (!checkpoints.isEmpty()) {
+            Map.Entry<Integer, Hash256> checkpoint = checkpoints.lastEntry();
+            int i = checkpoint.getKey();
+            if (i < blkChain.size() && blkChain.computeHash(i).equals(checkpoint.getValue())) {
+                return i;
+            }
+            checkpoints.remove(i);
+        }
+        return -1;
+    }
+
+    /**
+     Drops the checkpoints of a Block that changed and of the Blocks after it.
+     @param i the position of the Block that changed
+     */
+    private void dropCheckpointsFrom(int i) {
+        checkpoints.tailMap(i, true).clear();
+    }
+
+    /***
+     * Function to get the checkpoints verification left
+     * @return The hashes of the checkpointed Blocks, keyed by position
+     */
+    public SortedMap<Integer, Hash256> getCheckpoints() {
+        return Collections.unmodifiableSortedMap(checkpoints);
+    }
+
+    /**
+     Records a checkpoint saved earlier by this chain, after its Blocks were restored. It is only kept if the
+     chain has a Block at that position whose hash is still the recorded one.
+     @param i the position of the checkpointed Block
+     @param hash the hash the Block had when it was found valid
+     @return true if the checkpoint was kept
+     */
+    public boolean restoreCheckpoint(int i, Hash256 hash) {
+        if (i < 0 || i >= blkChain.size() || !blkChain.computeHash(i).equals(hash)) {
+            return false;
+        }
+        checkpoints.put(i, hash);
+        return true;
+    }
+
+    /***
+     * Function to get where the last verification started
+     * @return The position of the checkpoint the last verification started from, or -1 if it checked every Block
+     */
+    public int getLastVerificationStart() {
+        return lastVerificationStart;
+    }
+
+    /***
+     * Function to set how many Blocks apart verification leaves checkpoints
+     * @param checkpointInterval The distance between checkpoints, or 0 to leave none
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /***
+     * Function to set how many of the latest Blocks keep their data
+     * @param pruneDepth The number of Blocks to keep whole, or 0 to stop pruning
+     */
+    public void setPruneDepth(int pruneDepth) {
+        this.pruneDepth = pruneDepth;
+    }
+
+    /***
+     * Function to get how many of the latest Blocks keep their data
+     * @return The prune depth, or 0 if Blocks are not pruned
+     */
+    public int getPruneDepth() {
+        return pruneDepth;
+    }
+
+    /**
+
+     Repairs the blockchain by recomputing the hash values and nonce of each block
+     and ensuring that the chain is properly connected by updating previous hash values.
+     If a block's hash value does not meet the required leading zeros determined by its difficulty (or its target),
+     the block's nonce will be incremented until a hash value with the required leading zeros is found.
+     After the chain is repaired, the method updates the chainHash field to the hash value of the last block.
+     */
+    public void repairChain() {
+        repairChain(MiningCancellation.NONE);
+    }
+
+    /**
+     Repairs the blockchain like repairChain(), but stops when the given cancellation says so.
+     The blocks before the one being mined when mining stopped stay repaired.
+     @param cancellation decides when re-mining has to stop
+     @throws MiningCancelledException if re-mining a block stopped before a nonce was found
+     */
+    public void repairChain(MiningCancellation cancellation) {
+        RepairEvent event = new RepairEvent();
+        event.begin();
+        boolean repaired = false;
+        int index = 0;
+        try {
+            for (Block block = nextBlockToRepair(0); block != null; block = nextBlockToRepair(index)) {
+                index = block.getIndex();
+                putRepairedBlock(block, mine(block, cancellation));
+                event.blocksRemined++;
+            }
+            repaired = true;
+        } finally {
+            event.blocksScanned = repaired ? blkChain.size() : index + 1;
+            event.stopped = !repaired;
+            event.commit();
+        }
+    }
+
+    /**
+     Repairs the chain like repairChain() up to the first Block that has to be re-mined, and returns a copy of
+     that Block with its nonce reset, so that it can be mined without holding the chain. Mine it with mineBlock() and put
+     it back with putRepairedBlock(), then call this again from its position; once the chain changed in between,
+     start again from 0.
+     @param from the position to check from; the Blocks before it were checked already
+     @return the Block to re-mine, or null if the chain is repaired
+     */
+    public Block nextBlockToRepair(int from) {
+        for (int index = from; index < blkChain.size(); index++) {
+            Block block = blkChain.get(index);
+            // Pruned Blocks have no hash input, but can still be hashed
+            Hash256 hash = block.calculateHash();
+
+            if (blkChain.size() == 1 && !Hash256.EMPTY.equals(block.getPreviousHash())) {
+                dropCheckpointsFrom(0);
+                changedFrom(0);
+                block.setPreviousHash(Hash256.EMPTY);
+                // The store may have handed out a copy
+                blkChain.set(0, block);
+                Hash256 linked = block.calculateHash();
+                rehash(0, hash, linked);
+                hash = linked;
+                version++;
+            }
+
+            if (!block.meetsTarget(hash)) {
+                // The store may hand out the Block itself, which others still read while the copy is mined
+                Block copy = block.copy();
+                copy.setNonce(BigInteger.ZERO);
+                return copy;
+            }
+            linkNext(index, hash);
+        }
+        return null;
+    }
+
+    /**
+     Puts a Block returned by nextBlockToRepair() back after it was mined, and links the next Block to it.
+     @param block the mined Block
+     @param hash the hash of the mined Block
+     */
+    public void putRepairedBlock(Block block, Hash256 hash) {
+        int index = block.getIndex();
+        dropCheckpointsFrom(index);
+        changedFrom(index);
+        rehash(index, blkChain.get(index).calculateHash(), hash);
+        blkChain.set(index, block);
+        version++;
+        linkNext(index, hash);
+    }
+
+    /**
+     Makes the Block after a repaired one point to its hash, or the chain hash if it is the last one. The next
+     Block then usually misses its target and is re-mined in turn.
+     @param index the position of the repaired Block
+     @param hash the hash of the repaired Block
+     */
+    private void linkNext(int index, Hash256 hash) {
+        if (index < blkChain.size() - 1) {
+            if (!hash.equals(blkChain.getPreviousHash(index + 1))) {
+                Block next = blkChain.get(index + 1);
+                Hash256 oldHash = next.calculateHash();
+                dropCheckpointsFrom(index + 1);
+                changedFrom(index + 1);
+                next.setPreviousHash(hash);
+                blkChain.set(index + 1, next);
+                rehash(index + 1, oldHash, next.calculateHash());
+                version++;
+            }
+        } else if (!hash.equals(chainHash)) {
+            chainHash = hash;
+            version++;
+        }
+    }
+
+    /**
+     Moves a Block to its new hash in the hash index; its transaction data did not change.
+     @param i the position of the Block
+     @param oldHash the hash it was indexed under
+     @param newHash its new hash
+     */
+    private void rehash(int i, Hash256 oldHash, Hash256 newHash) {
+        hashIndex.remove(oldHash, i);
+        hashIndex.put(newHash, i);
+    }
+
+    /**
+     Estimates the work a repair takes: every Block from the first one that misses its target or does not link
+     to the one before has to be re-mined, since each re-mined Block changes the link of the next.
+     @return the expected hashes of those Blocks
+     */
+    public double getRepairExpectedHashes() {
+        double expectedHashes = 0;
+        boolean broken = false;
+        Hash256 previous = Hash256.EMPTY;
+        for (int i = 0; i < blkChain.size(); i++) {
+            Block block = blkChain.get(i);
+            Hash256 hash = block.calculateHash();
+            broken = broken || !previous.equals(block.getPreviousHash()) || !block.meetsTarget(hash);
+            if (broken) {
+                expectedHashes += block.getExpectedHashes();
+            }
+            previous = hash;
+        }
+        return expectedHashes;
+    }
+
+    /***
+     * This method converts the BlockChain object to a JSON string, one Block at a time
+     * so that any BlockStore gives the same JSON as the original list of Blocks
+     * @return A String representation of the entire chain
+     */
+    public java.lang.String toString() {
+        // Source to format date in Gson:
+        // http://www.java2s.com/example/java-api/com/google/gson/gsonbuilder/setdateformat-1-18.html
+        Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss.SSS").create();
+        // Serialize to JSON; Blocks keep their JSON until they change, so only new and changed ones are serialized
+        StringBuilder json = new StringBuilder("{\"blkChain\":[");
+        for (int i = 0; i < blkChain.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(blkChain.getJson(i));
+        }
+        return json.append("],\"chainHash\":").append(gson.toJson(chainHash)).append('}').toString();
+    }
+
+    /**
+     Computes the SHA256 hash of a given input string, as a Hash256 for comparing with the hashes of Blocks.
+     @param input The input string to be hashed
+     @return The SHA256 hash of the input string
+     */
+    static Hash256 computeHash(String input) {
+        byte[] hashedBytes = new byte[32];
+        try {
+            hashedBytes = MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            System.out.println("No SHA-256 available" + e);
+        }
+        return Hash256.fromBytes(hashedBytes);
+    }
+
+    /**
+
+     This method computes the SHA256 hash of a given input string and returns the hash in String form.
+     @param input The input string to be hashed
+     @return The SHA256 hash of the input string in String form
+     */
+    public String computeSHA256(String input) {
+        byte[] hashedBytes = new byte[0];
+        try {
+            // Access MessageDigest class for SHA256
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            // Compute the digest
+            byte[] inputBytes = input.getBytes(StandardCharsets.UTF_8);
+            // Hash the input byte array and store the result in another byte array
+            hashedBytes = md.digest(inputBytes);
+        }
+        // Handles No SHA-256 Algorithm exceptions
+        catch (NoSuchAlgorithmException e) {
+            // Print error message in console
+            System.out.println("No SHA-256 available" + e);
+        }
+        // Return the SHA256 hash in String form
+        return bytesToHex(hashedBytes);
+    }
+
+    // Code to convert from byte array to hexadecimal String
+    // Source: https://stackoverflow.com/questions/9655181/how-to-convert-a-byte-array-to-a-hex-string-in-java
+    private static final char[] HEX_ARRAY = "0123456789ABCDEF".toCharArray();
+
+    /**
+
+     Converts a byte array to a hexadecimal string representation.
+     @param bytes the byte array to be converted
+     @return the hexadecimal string representation of the byte array
+     */
+    public static String bytesToHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            int v = b & 0xFF;
+            sb.append(HEX_ARRAY[v >>> 4]);
+            sb.append(HEX_ARRAY[v & 0x0F]);
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
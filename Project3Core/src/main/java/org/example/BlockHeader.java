@@ -0,0 +1,110 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file holds the header of a Block: everything but its transaction data, plus the payload digest,
+ * the SHA-256 midstate of the index, timestamp and data. A header is enough to compute the hash of its
+ * Block and check its proof of work, so a node can check a whole chain of headers before it fetches any
+ * data, and then check each body it fetches against the digest of its header.
+ */
+
+package org.example;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+public class BlockHeader {
+
+    // Stores the fields of the Block that are part of its hash input, except the data
+    private int index;
+    private long timeMillis;
+    private Hash256 previousHash;
+    private BigInteger nonce;
+    private int difficulty;
+    private Hash256 target;
+    // Stores the SHA-256 midstate of index + timestamp + data
+    private Sha256Midstate payloadDigest;
+
+    /**
+     Reads the header of a Block from a store, without reading the data of stores that keep it apart.
+     @param store the store holding the Block
+     @param i the position of the Block
+     @return the header of the Block
+     */
+    static BlockHeader of(BlockStore store, int i) {
+        BlockHeader header = new BlockHeader();
+        header.index = i;
+        header.timeMillis = store.getTimeMillis(i);
+        header.previousHash = store.getPreviousHash(i);
+        header.nonce = store.getNonce(i);
+        header.difficulty = store.getDifficulty(i);
+        header.target = store.getTarget(i);
+        header.payloadDigest = store.getPayloadDigest(i);
+        return header;
+    }
+
+    /**
+     Computes the hash of the Block from its header, see Block.calculateHash().
+     @return the hash of the Block
+     */
+    public Hash256 computeHash() {
+        String rest = String.valueOf(previousHash) + nonce + Block.hashSuffix(difficulty, target);
+        return Hash256.fromBytes(payloadDigest.digest(rest.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     Checks that a hash meets the difficulty and target of the Block, see Block.meetsTarget().
+     @param hash the hash to check
+     @return true if the hash meets them
+     */
+    public boolean meetsTarget(Hash256 hash) {
+        return Block.meetsTarget(hash, difficulty, target);
+    }
+
+    /**
+     Computes the number of hashes needed on average to mine the Block.
+     @return the expected hashes of the Block
+     */
+    public double getExpectedHashes() {
+        return Block.expectedHashes(difficulty, target);
+    }
+
+    /**
+     Builds the Block of this header from its data. Without data the Block is pruned, see Block.prune().
+     @param data the transaction data of the Block, or null if the node it came from pruned it
+     @return the Block
+     @throws IllegalArgumentException if the data does not match the payload digest of the header
+     */
+    public Block toBlock(String data) {
+        Timestamp timestamp = new Timestamp(timeMillis);
+        if (data != null && !Sha256Midstate.of((index + timestamp.toString() + data).getBytes(StandardCharsets.UTF_8)).sameAs(payloadDigest)) {
+            throw new IllegalArgumentException("The data of block " + index + " does not match its header");
+        }
+        Block block = new Block(index, timestamp, data, difficulty);
+        if (data == null) {
+            block.setPrunedPayload(payloadDigest);
+        }
+        block.setPreviousHash(previousHash);
+        block.setNonce(nonce);
+        block.setTarget(target);
+        return block;
+    }
+
+    /***
+     * Function to get the index of the Block
+     * @return The position of the Block in its chain
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /***
+     * Function to get the previous hash of the Block
+     * @return The hash of the Block before it
+     */
+    public Hash256 getPreviousHash() {
+        return previousHash;
+    }
+}
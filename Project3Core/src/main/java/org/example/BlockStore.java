@@ -0,0 +1,159 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file defines where a BlockChain keeps its Blocks. ListBlockStore keeps Block objects in an
+ * ArrayList, ColumnarBlockStore keeps each field of the Blocks in its own primitive array and only creates
+ * Block objects when asked for one. A Block returned by get() may be a copy, so a changed Block has to be
+ * written back with set(). Scans of the whole chain use the per-field getters, which a store can answer
+ * without creating Blocks. BlockStores creates the store named in the configuration.
+ * SplitBlockStore keeps only headers in memory and reads the transaction data from a file when needed;
+ * it has to be closed when it is no longer used.
+ */
+
+package org.example;
+
+import java.io.Closeable;
+import java.math.BigInteger;
+
+public interface BlockStore extends Closeable {
+
+    /***
+     * Function to get the number of Blocks in the store
+     * @return The number of Blocks
+     */
+    int size();
+
+    /**
+     Returns the Block at a position. Changes to it are only kept after they are written back with set().
+     @param i the position of the Block
+     @return the Block, or a copy of it
+     */
+    Block get(int i);
+
+    /**
+     Appends a Block to the store.
+     @param block the Block to append
+     */
+    void add(Block block);
+
+    /**
+     Replaces the Block at a position, for instance with a changed copy returned by get().
+     @param i the position of the Block
+     @param block the new contents of the position
+     */
+    void set(int i, Block block);
+
+    /**
+     Removes the Blocks from a position to the end of the store.
+     @param size the number of Blocks to keep
+     */
+    void truncate(int size);
+
+    /***
+     * Function to get the time a Block was created
+     * @param i The position of the Block
+     * @return The timestamp of the Block in milliseconds since the epoch
+     */
+    default long getTimeMillis(int i) {
+        return get(i).getTimestamp().getTime();
+    }
+
+    /***
+     * Function to get the difficulty of a Block
+     * @param i The position of the Block
+     * @return The difficulty of the Block
+     */
+    default int getDifficulty(int i) {
+        return get(i).getDifficulty();
+    }
+
+    /***
+     * Function to get the target of a Block
+     * @param i The position of the Block
+     * @return The target of the Block, or null if it only has a difficulty
+     */
+    default Hash256 getTarget(int i) {
+        return get(i).getTarget();
+    }
+
+    /***
+     * Function to get the previous hash of a Block
+     * @param i The position of the Block
+     * @return The previous hash of the Block
+     */
+    default Hash256 getPreviousHash(int i) {
+        return get(i).getPreviousHash();
+    }
+
+    /***
+     * Function to get the nonce of a Block
+     * @param i The position of the Block
+     * @return The nonce of the Block
+     */
+    default BigInteger getNonce(int i) {
+        return get(i).getNonce();
+    }
+
+    /**
+     Returns the SHA-256 midstate of the index, timestamp and data of a Block, see Block.getPayloadDigest().
+     @param i the position of the Block
+     @return the payload digest of the Block
+     */
+    default Sha256Midstate getPayloadDigest(int i) {
+        return get(i).getPayloadDigest();
+    }
+
+    /**
+     Returns the String whose SHA-256 hash is the hash of a Block, see Block.calculateHash().
+     @param i the position of the Block
+     @return the hash input of the Block
+     */
+    default String getHashInput(int i) {
+        return get(i).getHashInput();
+    }
+
+    /**
+     Computes the hash of a Block, see Block.calculateHash(). A store may do this without reading all of the Block.
+     @param i the position of the Block
+     @return the hash of the Block
+     */
+    default Hash256 computeHash(int i) {
+        // A pruned Block has no hash input left, only its payload digest
+        return isPruned(i) ? get(i).calculateHash() : BlockChain.computeHash(getHashInput(i));
+    }
+
+    /**
+     Returns the JSON of a Block, see Block.toJson(). A store that hands out copies of its Blocks may keep the
+     JSON of each one, so that showing the whole chain again only serializes the Blocks that changed.
+     @param i the position of the Block
+     @return the JSON of the Block
+     */
+    default String getJson(int i) {
+        return get(i).toJson();
+    }
+
+    /***
+     * Function to check whether the data of a Block was pruned
+     * @param i The position of the Block
+     * @return True if only the payload digest of the data is left
+     */
+    default boolean isPruned(int i) {
+        return get(i).isPruned();
+    }
+
+    /***
+     * Function to get the name of the store, as used in the configuration
+     * @return Name of the store
+     */
+    String getName();
+
+    /**
+     Releases what the store holds besides memory, such as an open file. Stores kept only in memory have
+     nothing to release. The store cannot be used afterwards.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file creates BlockStores from their configured names. The store is chosen with the system
+ * property blockchain.storage (list, columnar or split), list by default. The main method fills every store
+ * with the same chain and compares how much memory each needs per Block and how fast it is scanned.
+ */
+
+package org.example;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+
+public class BlockStores {
+
+    /**
+     Creates an empty store with the given name.
+     @param name list, columnar or split
+     @return the new store
+     @throws IllegalArgumentException if there is no store with that name
+     */
+    public static BlockStore create(String name) {
+        switch (name) {
+            case "list": return new ListBlockStore();
+            case "columnar": return new ColumnarBlockStore();
+            case "split": return new SplitBlockStore();
+            default: throw new IllegalArgumentException("Unknown block storage: " + name);
+        }
+    }
+
+    /**
+     Creates an empty store of the kind selected by the system property blockchain.storage.
+     Unlike MiningEngines.getConfigured(), every call returns a new store.
+     @return the new store
+     */
+    public static BlockStore getConfigured() {
+        return create(System.getProperty("blockchain.storage", "list"));
+    }
+
+    /**
+     Fills every store with the same valid chain of difficulty 0 Blocks, then prints the heap each store
+     uses per Block, the time to sum the difficulty and expected hashes of the chain, and the time to
+     verify the chain. Run with a heap large enough for the list store, for instance -Xmx2g.
+     @param args optional number of Blocks, 1000000 by default, and characters of padding added to each
+     transaction, 0 by default
+     */
+    public static void main(String[] args) {
+        int blocks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String padding = "x".repeat(args.length > 1 ? Integer.parseInt(args[1]) : 0);
+        String[] names = {"list", "columnar", "split"};
+        String[] json = new String[names.length];
+
+        for (int s = 0; s < names.length; s++) {
+            long before = usedMemory();
+            BlockStore store = create(names[s]);
+            BlockChain blockChain = new BlockChain(new SequentialMiningEngine(), store);
+            long time = 1_700_000_000_000L;
+            Hash256 hash = Hash256.EMPTY;
+            for (int i = 0; i < blocks; i++) {
+                // Blocks come a few milliseconds apart, with nonces of the size mining finds at difficulty 5
+                Block block = new Block(i, new Timestamp(time + i * 7L), "Transaction " + i + padding, 0);
+                block.setPreviousHash(hash);
+                block.setNonce(BigInteger.valueOf(i * 1_000_003L % 2_000_000));
+                hash = block.calculateHash();
+                store.add(block);
+            }
+            // The Blocks were added to the store directly, so the chain hash is set by hand
+            blockChain.chainHash = hash;
+            long after = usedMemory();
+            System.out.println(names[s] + ": " + (after - before) / blocks + " bytes per block for " + blocks + " blocks");
+
+            for (int round = 0; round < 3; round++) {
+                long t1 = System.nanoTime();
+                double total = blockChain.getTotalDifficulty() + blockChain.getTotalExpectedHashes();
+                long t2 = System.nanoTime();
+                String valid = blockChain.isChainValid();
+                long t3 = System.nanoTime();
+                System.out.println(names[s] + ": summed difficulty and expected hashes (" + (long) total + ") in "
+                        + (t2 - t1) / 1_000_000 + " ms, verified the chain (" + valid + ") in "
+                        + (t3 - t2) / 1_000_000 + " ms");
+            }
+            json[s] = blocks <= 100_000 ? blockChain.toString() : null;
+            store.close();
+        }
+        if (json[0] != null && (!json[0].equals(json[1]) || !json[0].equals(json[2]))) {
+            throw new IllegalStateException("The stores do not give the same JSON");
+        }
+    }
+
+    /**
+     Runs the garbage collector and returns the heap in use.
+     @return the bytes of heap in use
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,353 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements a BlockStore that keeps the Blocks as a struct of arrays instead of an array of
+ * objects. Each field has its own primitive array: indexes and difficulties in int[], timestamps and nonces
+ * in long[], previous hashes packed as 32 bytes each in one byte[], and the transaction data as UTF-8 in a
+ * byte arena addressed by chunk, offset and length. That is about 70 bytes per Block plus its data, against
+ * several hundred for a Block object with its Timestamp, BigInteger and Strings, and a scan of one field reads
+ * one contiguous array. Block objects are only created by get(). Targets are rare, so they are kept in a map.
+ * The arena is a list of chunks of at most 16 MB, so it is not limited to the 2 GB of one array and growing
+ * it never copies more than one chunk.
+ *
+ * The arrays can only hold what the hashes of this project use: millisecond timestamps, nonces that fit a
+ * long, previous hashes, and data that UTF-8 keeps unchanged, the bytes Blocks are hashed from. Other Blocks
+ * are rejected. Replacing the data of a Block appends the new data to the arena. A pruned Block keeps its
+ * payload digest in the arena in place of its data: 40 bytes plus the 0 to 63 bytes of the hash input that do
+ * not fill a SHA-256 block, so pruning frees the data beyond that. Replaced, pruned and truncated data is
+ * reclaimed by compacting the arena, copying the data in use into new chunks, once there is more of it than
+ * of data in use; so the arena holds at most twice the data in use, plus 64 KB. Since get() builds a new
+ * Block every time, the JSON of each Block is kept here once asked for, until the Block is replaced.
+ */
+
+package org.example;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class ColumnarBlockStore implements BlockStore {
+
+    // Stores the kinds of previous hash: 32 bytes in previousHashes, the empty String, or not set
+    private static final byte HASH = 0;
+    private static final byte EMPTY = 1;
+    private static final byte UNSET = 2;
+    // Stores the size of a full chunk of the arena
+    private static final int CHUNK_BYTES = 1 << 24;
+    // Stores how many bytes of the arena have to be unused before it is compacted
+    private static final long COMPACT_MIN_BYTES = 1 << 16;
+
+    // Stores the number of Blocks
+    private int size;
+    // Stores the fields of the Blocks, one array per field
+    private int[] indexes;
+    private int[] difficulties;
+    private long[] timestamps;
+    private long[] nonces;
+    private byte[] previousHashKinds;
+    private byte[] previousHashes;
+    // Stores true for the pruned Blocks, whose place in the arena holds their payload digest instead of data
+    private boolean[] pruned;
+    // Stores the chunk holding the data of each Block, where it starts in the chunk and how many bytes it has
+    private int[] dataChunks;
+    private int[] dataOffsets;
+    private int[] dataLengths;
+    // Stores the transaction data of all Blocks as UTF-8, in chunks; only the last chunk has room left
+    private final ArrayList<byte[]> arena = new ArrayList<>();
+    // Stores how many bytes of the last chunk are used
+    private int chunkUsed;
+    // Stores how many bytes were written to the chunks, and how many of them belong to the Blocks of the store
+    private long arenaBytes;
+    private long liveBytes;
+    // Stores the targets of the Blocks that have one, by position
+    private final HashMap<Integer, Hash256> targets = new HashMap<>();
+    // Stores the JSON of each Block once it was asked for, or null until then
+    private final ArrayList<String> fragments = new ArrayList<>();
+
+    /**
+     Creates an empty store.
+     */
+    public ColumnarBlockStore() {
+        this(16);
+    }
+
+    /**
+     Creates an empty store with room for the given number of Blocks before its arrays have to grow.
+     @param capacity the number of Blocks to make room for
+     */
+    public ColumnarBlockStore(int capacity) {
+        capacity = Math.max(capacity, 1);
+        indexes = new int[capacity];
+        difficulties = new int[capacity];
+        timestamps = new long[capacity];
+        nonces = new long[capacity];
+        previousHashKinds = new byte[capacity];
+        previousHashes = new byte[capacity * 32];
+        pruned = new boolean[capacity];
+        dataChunks = new int[capacity];
+        dataOffsets = new int[capacity];
+        dataLengths = new int[capacity];
+        arena.add(new byte[(int) Math.min(capacity * 16L, CHUNK_BYTES)]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Block get(int i) {
+        checkIndex(i);
+        Block block = new Block(indexes[i], new Timestamp(timestamps[i]), pruned[i] ? null : getData(i),
+                difficulties[i]);
+        if (pruned[i]) {
+            block.setPrunedPayload(Sha256Midstate.decode(arena.get(dataChunks[i]), dataOffsets[i], dataLengths[i]));
+        }
+        block.setPreviousHash(getPreviousHash(i));
+        block.setNonce(BigInteger.valueOf(nonces[i]));
+        block.setTarget(targets.get(i));
+        return block;
+    }
+
+    @Override
+    public void add(Block block) {
+        if (size == indexes.length) {
+            grow();
+        }
+        store(size, block);
+        fragments.add(null);
+        size++;
+    }
+
+    @Override
+    public void set(int i, Block block) {
+        checkIndex(i);
+        store(i, block);
+        fragments.set(i, null);
+        compactIfWasteful();
+    }
+
+    @Override
+    public void truncate(int size) {
+        if (size < 0 || size > this.size) {
+            throw new IndexOutOfBoundsException("Cannot truncate " + this.size + " blocks to " + size);
+        }
+        // The arrays keep their capacity; the data bytes of the removed Blocks are unused until compacted
+        for (int i = size; i < this.size; i++) {
+            liveBytes -= dataLengths[i];
+        }
+        this.size = size;
+        targets.keySet().removeIf(i -> i >= size);
+        fragments.subList(size, fragments.size()).clear();
+        compactIfWasteful();
+    }
+
+    @Override
+    public long getTimeMillis(int i) {
+        checkIndex(i);
+        return timestamps[i];
+    }
+
+    @Override
+    public int getDifficulty(int i) {
+        checkIndex(i);
+        return difficulties[i];
+    }
+
+    @Override
+    public Hash256 getTarget(int i) {
+        checkIndex(i);
+        // Most chains have no targets at all; skip boxing the position then
+        return targets.isEmpty() ? null : targets.get(i);
+    }
+
+    @Override
+    public Hash256 getPreviousHash(int i) {
+        checkIndex(i);
+        switch (previousHashKinds[i]) {
+            case EMPTY: return Hash256.EMPTY;
+            case UNSET: return null;
+            default: return Hash256.fromBytes(previousHashes, i * 32);
+        }
+    }
+
+    @Override
+    public BigInteger getNonce(int i) {
+        checkIndex(i);
+        return BigInteger.valueOf(nonces[i]);
+    }
+
+    @Override
+    public boolean isPruned(int i) {
+        checkIndex(i);
+        return pruned[i];
+    }
+
+    @Override
+    public String getHashInput(int i) {
+        checkIndex(i);
+        if (isPruned(i)) {
+            throw new IllegalStateException("Block " + indexes[i] + " was pruned, its hash input is gone");
+        }
+        return indexes[i] + new Timestamp(timestamps[i]).toString() + getData(i) + getPreviousHash(i)
+                + nonces[i] + Block.hashSuffix(difficulties[i], targets.get(i));
+    }
+
+    @Override
+    public String getJson(int i) {
+        checkIndex(i);
+        String json = fragments.get(i);
+        if (json == null) {
+            json = get(i).toJson();
+            fragments.set(i, json);
+        }
+        return json;
+    }
+
+    @Override
+    public String getName() {
+        return "columnar";
+    }
+
+    /**
+     Decodes the transaction data of a Block from the arena.
+     @param i the position of the Block
+     @return the transaction data
+     */
+    private String getData(int i) {
+        return new String(arena.get(dataChunks[i]), dataOffsets[i], dataLengths[i], StandardCharsets.UTF_8);
+    }
+
+    /**
+     Writes the fields of a Block into the arrays at a position.
+     @param i the position to write
+     @param block the Block to write
+     @throws IllegalArgumentException if a field does not fit the arrays or the arena
+     */
+    private void store(int i, Block block) {
+        Timestamp timestamp = block.getTimestamp();
+        if (timestamp.getNanos() % 1_000_000 != 0) {
+            throw new IllegalArgumentException("Columnar storage keeps timestamps to the millisecond: " + timestamp);
+        }
+        if (block.getNonce().bitLength() > 63) {
+            throw new IllegalArgumentException("Columnar storage keeps nonces that fit a long: " + block.getNonce());
+        }
+        Hash256 previousHash = block.getPreviousHash();
+        // A pruned Block keeps its payload digest where other Blocks keep their data
+        byte[] data = block.isPruned() ? block.getPayloadDigest().encode() : Block.dataBytes(block.getData());
+
+        indexes[i] = block.getIndex();
+        difficulties[i] = block.getDifficulty();
+        timestamps[i] = timestamp.getTime();
+        nonces[i] = block.getNonce().longValue();
+        if (previousHash == null) {
+            previousHashKinds[i] = UNSET;
+        } else if (previousHash.isEmpty()) {
+            previousHashKinds[i] = EMPTY;
+        } else {
+            previousHashKinds[i] = HASH;
+            previousHash.writeTo(previousHashes, i * 32);
+        }
+        if (block.getTarget() == null) {
+            targets.remove(i);
+        } else {
+            targets.put(i, block.getTarget());
+        }
+
+        // Unchanged data keeps its place in the arena, so re-mining does not grow it
+        boolean replaced = i < size;
+        if (replaced && pruned[i] == block.isPruned() && dataLengths[i] == data.length && Arrays.equals(
+                arena.get(dataChunks[i]), dataOffsets[i], dataOffsets[i] + dataLengths[i], data, 0, data.length)) {
+            return;
+        }
+        if (replaced) {
+            liveBytes -= dataLengths[i];
+        }
+        pruned[i] = block.isPruned();
+        append(i, data, 0, data.length);
+        liveBytes += data.length;
+    }
+
+    /**
+     Appends the data of a Block to the last chunk of the arena. The last chunk doubles until it is full
+     size; data that does not fit then starts a new chunk, of its own size if it is larger than a chunk.
+     @param i the position of the Block
+     @param data the array holding the UTF-8 bytes of its data, or its encoded payload digest
+     @param from where the bytes start in the array
+     @param length how many bytes there are
+     */
+    private void append(int i, byte[] data, int from, int length) {
+        int last = arena.size() - 1;
+        byte[] chunk = arena.get(last);
+        if (chunkUsed + length > chunk.length) {
+            if (chunkUsed + length <= CHUNK_BYTES) {
+                chunk = Arrays.copyOf(chunk, Math.min(Math.max(chunk.length * 2, chunkUsed + length), CHUNK_BYTES));
+                arena.set(last, chunk);
+            } else {
+                chunk = new byte[Math.max(length, CHUNK_BYTES)];
+                arena.add(chunk);
+                last++;
+                chunkUsed = 0;
+            }
+        }
+        System.arraycopy(data, from, chunk, chunkUsed, length);
+        dataChunks[i] = last;
+        dataOffsets[i] = chunkUsed;
+        dataLengths[i] = length;
+        chunkUsed += length;
+        arenaBytes += length;
+    }
+
+    /**
+     Compacts the arena once more of its bytes are unused than used: the data of the Blocks is copied, in
+     order, into new chunks, and the old chunks are left to the garbage collector. Each compaction copies
+     at most as many bytes as became unused since the last one.
+     */
+    private void compactIfWasteful() {
+        long unused = arenaBytes - liveBytes;
+        if (unused < COMPACT_MIN_BYTES || unused <= liveBytes) {
+            return;
+        }
+        ArrayList<byte[]> old = new ArrayList<>(arena);
+        arena.clear();
+        arena.add(new byte[(int) Math.max(Math.min(liveBytes, CHUNK_BYTES), 16)]);
+        chunkUsed = 0;
+        arenaBytes = 0;
+        for (int i = 0; i < size; i++) {
+            append(i, old.get(dataChunks[i]), dataOffsets[i], dataLengths[i]);
+        }
+    }
+
+    /**
+     Doubles the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = indexes.length * 2;
+        indexes = Arrays.copyOf(indexes, capacity);
+        difficulties = Arrays.copyOf(difficulties, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        nonces = Arrays.copyOf(nonces, capacity);
+        previousHashKinds = Arrays.copyOf(previousHashKinds, capacity);
+        previousHashes = Arrays.copyOf(previousHashes, capacity * 32);
+        pruned = Arrays.copyOf(pruned, capacity);
+        dataChunks = Arrays.copyOf(dataChunks, capacity);
+        dataOffsets = Arrays.copyOf(dataOffsets, capacity);
+        dataLengths = Arrays.copyOf(dataLengths, capacity);
+    }
+
+    /**
+     Checks that a position holds a Block.
+     @param i the position
+     @throws IndexOutOfBoundsException if it does not
+     */
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size);
+        }
+    }
+}
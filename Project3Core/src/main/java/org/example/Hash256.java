@@ -0,0 +1,276 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This class holds a SHA-256 hash as four longs instead of a 64 character hex String. Comparing two
+ * hashes compares four numbers, and a hash takes 48 bytes of heap instead of about 100. Hashes are
+ * only turned into uppercase hex where people or JSON see them: toString() and the Gson adapter, which
+ * every Gson instance picks up from the annotation. EMPTY stands for the empty previous hash of the
+ * genesis Block; it prints as "" and is not equal to the all-zero hash.
+ */
+
+package org.example;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+@JsonAdapter(Hash256.GsonAdapter.class)
+public final class Hash256 implements Comparable<Hash256> {
+
+    // Stands for "no hash", the previous hash of the genesis Block
+    public static final Hash256 EMPTY = new Hash256(0, 0, 0, 0, true);
+
+    private static final char[] HEX_ARRAY = "0123456789ABCDEF".toCharArray();
+
+    // Stores the 32 bytes of the hash as big-endian words, w0 holding the first 8 bytes
+    private final long w0;
+    private final long w1;
+    private final long w2;
+    private final long w3;
+    // Stores whether this is EMPTY
+    private final boolean empty;
+
+    private Hash256(long w0, long w1, long w2, long w3, boolean empty) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+        this.empty = empty;
+    }
+
+    /**
+     Creates a hash from the 32 bytes of a digest.
+     @param bytes the digest
+     @return the hash
+     @throws IllegalArgumentException if there are not 32 bytes
+     */
+    public static Hash256 fromBytes(byte[] bytes) {
+        if (bytes.length != 32) {
+            throw new IllegalArgumentException("A SHA-256 hash has 32 bytes, not " + bytes.length);
+        }
+        return fromBytes(bytes, 0);
+    }
+
+    /**
+     Creates a hash from 32 bytes of an array.
+     @param bytes the array
+     @param offset where the hash starts in the array
+     @return the hash
+     */
+    public static Hash256 fromBytes(byte[] bytes, int offset) {
+        return new Hash256(word(bytes, offset), word(bytes, offset + 8), word(bytes, offset + 16),
+                word(bytes, offset + 24), false);
+    }
+
+    /**
+     Parses a hash from hex in either case. The empty String gives EMPTY.
+     @param hex the 64 hex digits of the hash, or ""
+     @return the hash
+     @throws IllegalArgumentException if the String is not 64 hex digits or empty
+     */
+    public static Hash256 fromHex(String hex) {
+        if (hex.isEmpty()) {
+            return EMPTY;
+        }
+        if (hex.length() != 64) {
+            throw new IllegalArgumentException("A SHA-256 hash has 64 hex digits: " + hex);
+        }
+        return new Hash256(hexWord(hex, 0), hexWord(hex, 16), hexWord(hex, 32), hexWord(hex, 48), false);
+    }
+
+    /**
+     Creates a hash from the eight big-endian state words SHA-256 ends with.
+     @param words the words, the first holding the first 4 bytes of the hash
+     @return the hash
+     */
+    static Hash256 fromInts(int[] words) {
+        return new Hash256(pair(words[0], words[1]), pair(words[2], words[3]), pair(words[4], words[5]),
+                pair(words[6], words[7]), false);
+    }
+
+    /**
+     Writes the 32 bytes of the hash into an array. EMPTY writes 32 zero bytes.
+     @param bytes the array
+     @param offset where to write the hash in the array
+     */
+    public void writeTo(byte[] bytes, int offset) {
+        for (int i = 0; i < 32; i++) {
+            bytes[offset + i] = (byte) (getWord(i / 8) >>> (56 - 8 * (i % 8)));
+        }
+    }
+
+    /**
+     Returns one of the four big-endian words of the hash, without copying them into an array.
+     @param i the word, 0 for the first 8 bytes
+     @return the word
+     */
+    long getWord(int i) {
+        switch (i) {
+            case 0: return w0;
+            case 1: return w1;
+            case 2: return w2;
+            default: return w3;
+        }
+    }
+
+    /***
+     * Function to check whether this is the empty previous hash of the genesis Block
+     * @return True if this is EMPTY
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     Counts the zero hex digits the hash begins with, the way a difficulty counts them.
+     @return the number of leading zero hex digits, 64 for the all-zero hash and 0 for EMPTY
+     */
+    public int leadingZeroDigits() {
+        if (empty) {
+            return 0;
+        }
+        if (w0 != 0) {
+            return Long.numberOfLeadingZeros(w0) / 4;
+        }
+        if (w1 != 0) {
+            return 16 + Long.numberOfLeadingZeros(w1) / 4;
+        }
+        if (w2 != 0) {
+            return 32 + Long.numberOfLeadingZeros(w2) / 4;
+        }
+        return 48 + Long.numberOfLeadingZeros(w3) / 4;
+    }
+
+    /**
+     Compares two hashes as unsigned 256-bit numbers. EMPTY comes before every other hash.
+     @param other the hash to compare with
+     @return a negative number, zero or a positive number if this hash is below, equal to or above the other
+     */
+    @Override
+    public int compareTo(Hash256 other) {
+        if (empty || other.empty) {
+            return Boolean.compare(other.empty, empty);
+        }
+        int order = Long.compareUnsigned(w0, other.w0);
+        if (order == 0) {
+            order = Long.compareUnsigned(w1, other.w1);
+        }
+        if (order == 0) {
+            order = Long.compareUnsigned(w2, other.w2);
+        }
+        if (order == 0) {
+            order = Long.compareUnsigned(w3, other.w3);
+        }
+        return order;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Hash256)) {
+            return false;
+        }
+        Hash256 other = (Hash256) o;
+        return w0 == other.w0 && w1 == other.w1 && w2 == other.w2 && w3 == other.w3 && empty == other.empty;
+    }
+
+    @Override
+    public int hashCode() {
+        // The words of a SHA-256 hash are already uniformly distributed
+        return (int) w3;
+    }
+
+    /**
+     Returns the hash in the uppercase hex form it has in the hash input and the JSON of a Block.
+     @return the 64 hex digits of the hash, or "" for EMPTY
+     */
+    @Override
+    public String toString() {
+        if (empty) {
+            return "";
+        }
+        char[] hex = new char[64];
+        for (int i = 0; i < 64; i++) {
+            hex[i] = HEX_ARRAY[(int) (getWord(i / 16) >>> (60 - 4 * (i % 16))) & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    /**
+     Returns the hash as a number, for the expected work of a target.
+     @return the hash as an unsigned 256-bit number, rounded to a double
+     */
+    public double doubleValue() {
+        return unsigned(w0) * 0x1p192 + unsigned(w1) * 0x1p128 + unsigned(w2) * 0x1p64 + unsigned(w3);
+    }
+
+    /**
+     Converts a long read as unsigned to a double.
+     @param word the long
+     @return its unsigned value
+     */
+    private static double unsigned(long word) {
+        return (word >>> 1) * 2.0 + (word & 1);
+    }
+
+    /**
+     Parses 16 hex digits of a String as a big-endian long.
+     @param hex the String
+     @param offset where the digits start
+     @return the long
+     @throws IllegalArgumentException if one of them is not a hex digit
+     */
+    private static long hexWord(String hex, int offset) {
+        long word = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a hex digit in hash: " + hex);
+            }
+            word = word << 4 | digit;
+        }
+        return word;
+    }
+
+    /**
+     Joins two ints into a long, the first one in the high half.
+     @param high the high half
+     @param low the low half
+     @return the long
+     */
+    private static long pair(int high, int low) {
+        return (long) high << 32 | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     Reads 8 bytes of an array as a big-endian long.
+     @param bytes the array
+     @param offset where the long starts
+     @return the long
+     */
+    private static long word(byte[] bytes, int offset) {
+        long word = 0;
+        for (int i = 0; i < 8; i++) {
+            word = word << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return word;
+    }
+
+    /**
+     Writes hashes to JSON as their hex Strings and reads them back.
+     */
+    static class GsonAdapter extends TypeAdapter<Hash256> {
+        @Override
+        public void write(JsonWriter out, Hash256 hash) throws IOException {
+            out.value(hash.toString());
+        }
+
+        @Override
+        public Hash256 read(JsonReader in) throws IOException {
+            return fromHex(in.nextString());
+        }
+    }
+}
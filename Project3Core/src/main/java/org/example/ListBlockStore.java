@@ -0,0 +1,48 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements the original BlockStore: an ArrayList of Block objects. get() returns the
+ * stored Block itself, so set() only has to handle a Block that is not already in place.
+ */
+
+package org.example;
+
+import java.util.ArrayList;
+
+public class ListBlockStore implements BlockStore {
+
+    // Stores the blocks of the BlockChain
+    private final ArrayList<Block> blocks = new ArrayList<>();
+
+    @Override
+    public int size() {
+        return blocks.size();
+    }
+
+    @Override
+    public Block get(int i) {
+        return blocks.get(i);
+    }
+
+    @Override
+    public void add(Block block) {
+        blocks.add(block);
+    }
+
+    @Override
+    public void set(int i, Block block) {
+        blocks.set(i, block);
+    }
+
+    @Override
+    public void truncate(int size) {
+        blocks.subList(size, blocks.size()).clear();
+    }
+
+    @Override
+    public String getName() {
+        return "list";
+    }
+}
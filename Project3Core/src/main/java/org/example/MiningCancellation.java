@@ -0,0 +1,113 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file lets a caller stop a MiningEngine. A MiningCancellation ends mining either when its
+ * deadline passes or when cancel() is called from another thread, for example when the client that
+ * asked for a Block disconnects. Engines check it between chunks of nonces, so stopping takes at most
+ * the time needed to hash one chunk.
+ */
+
+package org.example;
+
+import java.util.concurrent.TimeUnit;
+
+public class MiningCancellation {
+
+    // A cancellation that never ends mining; it is shared by every caller, so cancel() does nothing on it
+    public static final MiningCancellation NONE = new MiningCancellation(Long.MAX_VALUE) {
+        @Override
+        public void cancel(String reason) {
+        }
+    };
+
+    // Stores the System.nanoTime() after which mining stops, or Long.MAX_VALUE for no deadline
+    private final long deadline;
+    // Stores the reason mining was stopped, or null while it may continue
+    private volatile String reason;
+    // Stores whether mining was stopped because the deadline passed
+    private volatile boolean timedOut;
+
+    private MiningCancellation(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     Creates a cancellation that only ends mining when cancel() is called.
+     @return the new cancellation
+     */
+    public static MiningCancellation manual() {
+        return new MiningCancellation(Long.MAX_VALUE);
+    }
+
+    /**
+     Creates a cancellation that ends mining once the given time has passed.
+     @param millis the time in milliseconds mining may take; limits too large to reach mean no deadline
+     @return the new cancellation
+     */
+    public static MiningCancellation withTimeout(long millis) {
+        // toNanos() saturates instead of overflowing; a deadline centuries away is no deadline
+        long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        if (nanos >= Long.MAX_VALUE / 2) {
+            return manual();
+        }
+        return new MiningCancellation(System.nanoTime() + nanos);
+    }
+
+    /**
+     Stops mining. Only the first reason given is kept. Does nothing on NONE.
+     @param reason why mining was stopped
+     */
+    public synchronized void cancel(String reason) {
+        if (this.reason == null) {
+            this.reason = reason;
+        }
+    }
+
+    /**
+     Checks whether mining has to stop, either because cancel() was called or because the deadline passed.
+     @return true if mining has to stop
+     */
+    public boolean isCancelled() {
+        if (reason != null) {
+            return true;
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            synchronized (this) {
+                if (reason == null) {
+                    timedOut = true;
+                    reason = "deadline passed";
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     Throws if mining has to stop.
+     @throws MiningCancelledException if cancel() was called or the deadline passed
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new MiningCancelledException(reason, timedOut);
+        }
+    }
+
+    /***
+     * Function to get why mining was stopped
+     * @return The reason given to cancel(), "deadline passed", or null if mining may continue
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /***
+     * Function to check whether mining was stopped by the deadline
+     * @return true if the deadline passed before anyone called cancel()
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+}
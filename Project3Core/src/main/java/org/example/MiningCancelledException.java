@@ -0,0 +1,47 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file is thrown by a MiningEngine when its MiningCancellation stops it before a nonce was found.
+ * The Block being mined keeps the nonce it had before mining started.
+ */
+
+package org.example;
+
+public class MiningCancelledException extends RuntimeException {
+
+    // Stores the version of the serialized form of this exception
+    private static final long serialVersionUID = 1L;
+    // Stores why mining was stopped
+    private final String reason;
+    // Stores whether mining was stopped because its deadline passed
+    private final boolean timedOut;
+
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param reason why mining was stopped
+     @param timedOut true if mining was stopped by its deadline
+     */
+    public MiningCancelledException(String reason, boolean timedOut) {
+        super("Mining cancelled: " + reason);
+        this.reason = reason;
+        this.timedOut = timedOut;
+    }
+
+    /***
+     * Function to get why mining was stopped
+     * @return The reason given to MiningCancellation.cancel(), or "deadline passed"
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /***
+     * Function to check whether mining was stopped by its deadline
+     * @return true if the deadline passed, false if mining was cancelled for another reason
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+}
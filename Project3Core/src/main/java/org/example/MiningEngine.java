@@ -0,0 +1,43 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file defines how Blocks are mined. BlockChain.addBlock(), BlockChain.repairChain() and
+ * therefore ServerTCP.addTransaction() all find their proof of work through a MiningEngine, so a
+ * faster engine can be swapped in without touching those call sites. MiningEngines creates the
+ * engine named in the configuration. Mining can be stopped early with a MiningCancellation.
+ */
+
+package org.example;
+
+public interface MiningEngine {
+
+    // Stores the number of nonces engines try between two checks of their MiningCancellation
+    int CANCELLATION_CHECK_INTERVAL = 16384;
+
+    /**
+     Finds a nonce for the Block, starting at its current nonce, whose hash begins with as many zeros
+     as the Block's difficulty. The nonce is stored on the Block.
+     @param block the Block to be mined
+     @return the SHA-256 hash of the Block with the nonce that was found
+     */
+    default Hash256 mine(Block block) {
+        return mine(block, MiningCancellation.NONE);
+    }
+
+    /**
+     Mines the Block like mine(Block), but stops when the given cancellation says so.
+     @param block the Block to be mined
+     @param cancellation decides when mining has to stop
+     @return the SHA-256 hash of the Block with the nonce that was found
+     @throws MiningCancelledException if mining was stopped before a nonce was found; the nonce of the Block is unchanged
+     */
+    Hash256 mine(Block block, MiningCancellation cancellation);
+
+    /***
+     * Function to get the name of the engine, as used in the configuration
+     * @return Name of the engine
+     */
+    String getName();
+}
@@ -0,0 +1,91 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file creates MiningEngines from their configured names. The engine is chosen with the
+ * system property blockchain.mining.engine (sequential, parallel or vector) and the number of
+ * threads of the parallel engine with blockchain.mining.threads, which defaults to the number of
+ * processors. The main method mines the same Blocks with every engine and compares them.
+ */
+
+package org.example;
+
+import java.sql.Timestamp;
+
+public class MiningEngines {
+
+    // Stores the engine configured for this JVM, created on first use
+    private static MiningEngine configured;
+
+    /**
+     Creates the engine with the given name.
+     @param name sequential, parallel or vector
+     @param threads the number of threads of the parallel engine
+     @return the new engine
+     @throws IllegalArgumentException if there is no engine with that name
+     */
+    public static MiningEngine create(String name, int threads) {
+        switch (name) {
+            case "sequential": return new SequentialMiningEngine();
+            case "parallel": return new ParallelMiningEngine(threads);
+            case "vector": return new VectorMiningEngine();
+            default: throw new IllegalArgumentException("Unknown mining engine: " + name);
+        }
+    }
+
+    /**
+     Returns the engine selected by the system properties blockchain.mining.engine and blockchain.mining.threads.
+     The same engine is returned on every call.
+     @return the configured engine
+     */
+    public static synchronized MiningEngine getConfigured() {
+        if (configured == null) {
+            configured = create(System.getProperty("blockchain.mining.engine", "sequential"),
+                    Integer.getInteger("blockchain.mining.threads", Runtime.getRuntime().availableProcessors()));
+        }
+        return configured;
+    }
+
+    /**
+     Mines the same Blocks with every engine, checks that they agree with Block.calculateHash()
+     and prints how long each engine took. Start the JVM with --add-modules jdk.incubator.vector
+     to measure the vector engine rather than its scalar fallback.
+     @param args optional difficulty and number of Blocks, 5 and 20 by default
+     */
+    public static void main(String[] args) {
+        int difficulty = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int blocks = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        MiningEngine[] engines = {
+                new SequentialMiningEngine(),
+                new ParallelMiningEngine(Runtime.getRuntime().availableProcessors()),
+                new VectorMiningEngine()
+        };
+        System.out.println("Processors: " + Runtime.getRuntime().availableProcessors()
+                + ", vector lanes: " + VectorMiningEngine.getLanes());
+
+        for (int round = 0; round < 2; round++) {
+            long[] nonces = new long[blocks];
+            for (MiningEngine engine : engines) {
+                Timestamp time = new Timestamp(0);
+                long t1 = System.nanoTime();
+                for (int i = 0; i < blocks; i++) {
+                    Block block = new Block(i, time, "Transaction " + i, difficulty);
+                    block.setPreviousHash(Hash256.EMPTY);
+                    Hash256 hash = engine.mine(block);
+                    if (!hash.equals(block.calculateHash()) || hash.leadingZeroDigits() < difficulty) {
+                        throw new IllegalStateException(engine.getName() + " produced an invalid hash for block " + i);
+                    }
+                    // Every engine returns the lowest valid nonce, so they must all agree
+                    if (engine != engines[0] && nonces[i] != block.getNonce().longValueExact()) {
+                        throw new IllegalStateException(engine.getName() + " found a different nonce for block " + i);
+                    }
+                    nonces[i] = block.getNonce().longValueExact();
+                }
+                long t2 = System.nanoTime();
+                System.out.println(engine.getName() + ": " + blocks + " blocks at difficulty " + difficulty
+                        + " in " + (t2 - t1) / 1_000_000 + " milliseconds");
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file defines the Java Flight Recorder event of mining one Block, for new and for repaired Blocks.
+ * Like every JFR event it costs next to nothing while no recording has it enabled; see blockchain.jfc in
+ * Project3Task1 for settings to record it with.
+ */
+
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.Mining")
+@Label("Mine Block")
+@Category({"Blockchain", "Mining"})
+@Description("Finding the proof of work of one Block")
+@StackTrace(false)
+public class MiningEvent extends jdk.jfr.Event {
+
+    @Label("Block Index")
+    int blockIndex;
+
+    @Label("Difficulty")
+    int difficulty;
+
+    @Label("Nonces Tried")
+    @Description("The nonces from the one mining started at up to the one found; parallel engines may have tried"
+            + " a few more. 0 if mining was stopped")
+    long noncesTried;
+
+    @Label("Mining Engine")
+    String engine;
+
+    @Label("Stopped")
+    @Description("True if mining was stopped before a nonce was found")
+    boolean stopped;
+}
@@ -0,0 +1,189 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file searches for the proof of work of a Block. The hash input of a Block is
+ * index + timestamp + data + previousHash + nonce + difficulty (+ target), so everything up to the nonce is
+ * fixed while mining. The hasher compresses that prefix once and then only hashes the final blocks
+ * holding the nonce for every try. The hashes it produces are identical to Block.calculateHash().
+ */
+
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+
+public class MiningHasher {
+
+    // Stores the compression state of the fixed part of the hash input
+    private final Sha256Midstate midstate;
+    // Stores the number of prefix bytes that are already in the tail buffer
+    private final int pendingLength;
+    // Stores the difficulty digits and the target that follow the nonce in the hash input
+    private final byte[] suffixBytes;
+    // Stores the minimum number of left most hex digits needed by a proper hash
+    private final int difficulty;
+    // Stores the target of the Block as eight words, or null if only the difficulty applies
+    private final int[] targetWords;
+    // Stores the last blocks of the hash input, rewritten for every nonce
+    private final byte[] tail = new byte[192];
+    // Scratch space for the nonce digits
+    private final byte[] digits = new byte[20];
+    // Stores the working state words for the current try
+    private final int[] h = new int[8];
+    // Scratch space for the message schedule
+    private final int[] w = new int[64];
+
+    /**
+     Creates a hasher for the given Block, taking a snapshot of its index, timestamp, data,
+     previous hash and difficulty. Later changes to those fields are not seen by the hasher.
+     @param block the Block to be mined
+     */
+    public MiningHasher(Block block) {
+        // Same encoding as Block.calculateHash(); pruned Blocks only have the payload digest left
+        this.midstate = block.getPayloadDigest().extend(String.valueOf(block.getPreviousHash()).getBytes(StandardCharsets.UTF_8));
+        this.pendingLength = midstate.getPending().length;
+        this.difficulty = block.getDifficulty();
+        this.suffixBytes = Block.hashSuffix(difficulty, block.getTarget()).getBytes(StandardCharsets.UTF_8);
+        this.targetWords = block.getTarget() == null ? null : targetWords(block.getTarget());
+        System.arraycopy(midstate.getPending(), 0, tail, 0, pendingLength);
+    }
+
+    /**
+     Tries nonces upwards from the given one until a hash with enough leading zeros is found.
+     @param startNonce the first nonce to try
+     @return the first nonce at or after startNonce that satisfies the difficulty
+     */
+    public long findNonce(long startNonce) {
+        long nonce = startNonce;
+        while (!tryNonce(nonce)) {
+            nonce++;
+        }
+        return nonce;
+    }
+
+    /**
+     Tries the nonces from startNonce up to, but not including, endNonce.
+     @param startNonce the first nonce to try
+     @param endNonce the nonce at which the search stops
+     @return the first nonce in the range that satisfies the difficulty, or -1 if there is none
+     */
+    public long findNonce(long startNonce, long endNonce) {
+        for (long nonce = startNonce; nonce < endNonce; nonce++) {
+            if (tryNonce(nonce)) {
+                return nonce;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     Hashes the Block with the given nonce and checks it against the difficulty and target.
+     @param nonce the nonce to try, must not be negative
+     @return true if the hash begins with the required number of zeros and is not above the target
+     */
+    public boolean tryNonce(long nonce) {
+        hash(nonce);
+        return hasLeadingZeros(h, difficulty) && (targetWords == null || isWithinTarget(h, targetWords));
+    }
+
+    /**
+     Computes the hash of the Block with the given nonce.
+     @param nonce the nonce to hash with, must not be negative
+     @return the SHA-256 hash, the same as Block.calculateHash() gives
+     */
+    public Hash256 hashOf(long nonce) {
+        hash(nonce);
+        return Hash256.fromInts(h);
+    }
+
+    // Leaves the final state words of the hash for the given nonce in h
+    private void hash(long nonce) {
+        int position = pendingLength;
+        // Write the decimal digits of the nonce
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + (nonce % 10));
+            nonce /= 10;
+        } while (nonce > 0);
+        while (count > 0) {
+            tail[position++] = digits[--count];
+        }
+        System.arraycopy(suffixBytes, 0, tail, position, suffixBytes.length);
+        position += suffixBytes.length;
+
+        // Append the SHA-256 padding and the message length in bits
+        int end = paddedLength(position);
+        tail[position] = (byte) 0x80;
+        for (int i = position + 1; i < end - 8; i++) {
+            tail[i] = 0;
+        }
+        long bitLength = (midstate.getLength() + position - pendingLength) * 8;
+        for (int i = 0; i < 8; i++) {
+            tail[end - 1 - i] = (byte) (bitLength >>> (8 * i));
+        }
+
+        System.arraycopy(midstate.getState(), 0, h, 0, 8);
+        for (int offset = 0; offset < end; offset += 64) {
+            Sha256Midstate.compress(h, tail, offset, w);
+        }
+    }
+
+    /**
+     Checks whether the hex form of a hash begins with the given number of zeros,
+     without converting the hash to a String.
+     @param h the eight state words of the hash
+     @param difficulty the number of leading hex zeros required
+     @return true if the hash has at least that many leading zeros
+     */
+    static boolean hasLeadingZeros(int[] h, int difficulty) {
+        if (difficulty > 64) {
+            return false;
+        }
+        int fullWords = Math.max(difficulty, 0) / 8;
+        for (int i = 0; i < fullWords; i++) {
+            if (h[i] != 0) {
+                return false;
+            }
+        }
+        int nibbles = Math.max(difficulty, 0) % 8;
+        return nibbles == 0 || (h[fullWords] >>> (32 - 4 * nibbles)) == 0;
+    }
+
+    /**
+     Checks whether a hash, read as a 256-bit number, is not above the target.
+     @param h the eight state words of the hash
+     @param target the eight words of the target
+     @return true if the hash is less than or equal to the target
+     */
+    static boolean isWithinTarget(int[] h, int[] target) {
+        for (int i = 0; i < 8; i++) {
+            if (h[i] != target[i]) {
+                return Integer.compareUnsigned(h[i], target[i]) < 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     Splits a target into eight big-endian words, like the state words of a hash.
+     @param target the target
+     @return the words of the target
+     */
+    static int[] targetWords(Hash256 target) {
+        int[] words = new int[8];
+        for (int i = 0; i < 8; i++) {
+            words[i] = (int) (target.getWord(i / 2) >>> (i % 2 == 0 ? 32 : 0));
+        }
+        return words;
+    }
+
+    /**
+     Computes the length of the tail once the SHA-256 padding and length are appended.
+     @param length the number of message bytes in the tail
+     @return the length rounded up to whole 64-byte blocks
+     */
+    static int paddedLength(int length) {
+        return (length + 9 + 63) / 64 * 64;
+    }
+}
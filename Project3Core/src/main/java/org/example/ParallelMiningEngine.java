@@ -0,0 +1,98 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file is a MiningEngine that searches with several threads. The threads take chunks of
+ * consecutive nonces from a shared counter, and every chunk below the best nonce found so far is
+ * searched completely. The result is therefore the lowest valid nonce, the same one the
+ * SequentialMiningEngine finds.
+ */
+
+package org.example;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ParallelMiningEngine implements MiningEngine {
+
+    // Stores the number of nonces a thread takes from the shared counter at a time
+    private static final int CHUNK_SIZE = 4096;
+
+    // Stores the number of mining threads
+    private final int threads;
+    // Runs the mining threads; they are daemons so an idle engine does not keep the JVM alive
+    private final ExecutorService pool;
+
+    /**
+     Creates an engine that mines with the given number of threads.
+     @param threads the number of mining threads, at least 1
+     */
+    public ParallelMiningEngine(int threads) {
+        this.threads = Math.max(1, threads);
+        this.pool = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "miner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     Mines the Block with all threads, starting at its current nonce.
+     @param block the Block to be mined
+     @param cancellation checked by every thread before it takes the next chunk of nonces
+     @return the SHA-256 hash of the Block with the nonce that was found
+     */
+    public Hash256 mine(Block block, MiningCancellation cancellation) {
+        AtomicLong next = new AtomicLong(block.getNonce().longValueExact());
+        AtomicLong best = new AtomicLong(Long.MAX_VALUE);
+        // Stops the threads when the caller is interrupted, without cancelling the caller's cancellation
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(pool.submit(() -> {
+                // Every thread needs its own hasher, as hashers reuse their buffers
+                MiningHasher hasher = new MiningHasher(block);
+                while (true) {
+                    long start = next.getAndAdd(CHUNK_SIZE);
+                    if (start >= best.get() || stopped.get() || cancellation.isCancelled()) {
+                        return;
+                    }
+                    for (long nonce = start; nonce < start + CHUNK_SIZE; nonce++) {
+                        if (hasher.tryNonce(nonce)) {
+                            best.accumulateAndGet(nonce, Math::min);
+                            break;
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                stopped.set(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Mining was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Mining thread failed", e.getCause());
+            }
+        }
+        // Once a thread stopped early, lower chunks may not have been searched and the nonce could differ
+        // from the sequential one, so a cancelled search fails even when a nonce was found
+        cancellation.throwIfCancelled();
+        block.setNonce(BigInteger.valueOf(best.get()));
+        return new MiningHasher(block).hashOf(best.get());
+    }
+
+    public String getName() {
+        return "parallel";
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file defines the Java Flight Recorder event of repairing the chain, see BlockChain.repairChain().
+ * The mining of each re-mined Block is also recorded on its own, as a MiningEvent.
+ */
+
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.Repair")
+@Label("Repair Chain")
+@Category("Blockchain")
+@Description("Re-mining the Blocks whose hashes no longer meet their difficulty and relinking the chain")
+@StackTrace(false)
+public class RepairEvent extends jdk.jfr.Event {
+
+    @Label("Blocks Scanned")
+    int blocksScanned;
+
+    @Label("Blocks Re-mined")
+    int blocksRemined;
+
+    @Label("Stopped")
+    @Description("True if re-mining was stopped before the whole chain was repaired")
+    boolean stopped;
+}
@@ -0,0 +1,38 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file is the default MiningEngine. It tries one nonce after another on the calling
+ * thread with a MiningHasher.
+ */
+
+package org.example;
+
+import java.math.BigInteger;
+
+public class SequentialMiningEngine implements MiningEngine {
+
+    /**
+     Mines the Block by trying nonces upwards from its current nonce.
+     @param block the Block to be mined
+     @param cancellation checked between chunks of nonces
+     @return the SHA-256 hash of the Block with the nonce that was found
+     */
+    public Hash256 mine(Block block, MiningCancellation cancellation) {
+        MiningHasher hasher = new MiningHasher(block);
+        long start = block.getNonce().longValueExact();
+        long found = -1;
+        while (found < 0) {
+            cancellation.throwIfCancelled();
+            found = hasher.findNonce(start, start + CANCELLATION_CHECK_INTERVAL);
+            start += CANCELLATION_CHECK_INTERVAL;
+        }
+        block.setNonce(BigInteger.valueOf(found));
+        return hasher.hashOf(found);
+    }
+
+    public String getName() {
+        return "sequential";
+    }
+}
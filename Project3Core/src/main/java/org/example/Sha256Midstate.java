@@ -0,0 +1,232 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file holds a SHA-256 compression state that can be resumed. It lets the miner absorb the
+ * part of a hash input that never changes once, and then finish the hash for every nonce by only
+ * compressing the last one or two 64-byte blocks.
+ */
+
+package org.example;
+
+public final class Sha256Midstate {
+
+    // SHA-256 round constants
+    static final int[] K = {
+            0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+            0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+            0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+            0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+            0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+            0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+            0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+            0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+    };
+    // SHA-256 initial hash value
+    static final int[] IV = {
+            0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+    };
+
+    // Stores the compression state after every complete 64-byte block absorbed so far
+    private final int[] state;
+    // Stores the trailing bytes that do not yet fill a complete block
+    private final byte[] pending;
+    // Stores the total number of bytes absorbed, including the pending ones
+    private final long length;
+
+    private Sha256Midstate(int[] state, byte[] pending, long length) {
+        this.state = state;
+        this.pending = pending;
+        this.length = length;
+    }
+
+    /**
+     Computes the midstate of the given bytes, compressing every complete block once.
+     @param prefix the fixed leading bytes of a hash input
+     @return the resumable compression state of the prefix
+     */
+    public static Sha256Midstate of(byte[] prefix) {
+        return new Sha256Midstate(IV.clone(), new byte[0], 0).extend(prefix);
+    }
+
+    /**
+     Returns a new midstate that has absorbed the given bytes after the ones already absorbed.
+     This midstate is left unchanged.
+     @param bytes the bytes to append
+     @return the resumable compression state of the longer input
+     */
+    public Sha256Midstate extend(byte[] bytes) {
+        int[] newState = state.clone();
+        int[] w = new int[64];
+        byte[] joined = new byte[pending.length + bytes.length];
+        System.arraycopy(pending, 0, joined, 0, pending.length);
+        System.arraycopy(bytes, 0, joined, pending.length, bytes.length);
+        int complete = joined.length - (joined.length % 64);
+        for (int offset = 0; offset < complete; offset += 64) {
+            compress(newState, joined, offset, w);
+        }
+        byte[] newPending = new byte[joined.length - complete];
+        System.arraycopy(joined, complete, newPending, 0, newPending.length);
+        return new Sha256Midstate(newState, newPending, length + bytes.length);
+    }
+
+    /**
+     Finishes the hash of the absorbed bytes followed by the given tail, leaving this midstate unchanged.
+     @param tail the bytes that complete the hash input
+     @return the 32-byte SHA-256 digest
+     */
+    public byte[] digest(byte[] tail) {
+        // Pad the pending bytes and the tail in one buffer, rather than extending first
+        int total = pending.length + tail.length;
+        byte[] block = new byte[(total + 9 + 63) / 64 * 64];
+        System.arraycopy(pending, 0, block, 0, pending.length);
+        System.arraycopy(tail, 0, block, pending.length, tail.length);
+        block[total] = (byte) 0x80;
+        long bitLength = (length + tail.length) * 8;
+        for (int i = 0; i < 8; i++) {
+            block[block.length - 1 - i] = (byte) (bitLength >>> (8 * i));
+        }
+        int[] h = state.clone();
+        int[] w = new int[64];
+        for (int offset = 0; offset < block.length; offset += 64) {
+            compress(h, block, offset, w);
+        }
+        return toBytes(h);
+    }
+
+    /**
+     Checks whether two midstates absorbed the same input, as far as SHA-256 can tell.
+     @param other the midstate to compare with
+     @return true if both have the same state, pending bytes and length
+     */
+    boolean sameAs(Sha256Midstate other) {
+        return length == other.length && java.util.Arrays.equals(state, other.state)
+                && java.util.Arrays.equals(pending, other.pending);
+    }
+
+    /***
+     * Function to get the compression state of the complete blocks
+     * @return The internal state words; callers must not modify them
+     */
+    int[] getState() {
+        return state;
+    }
+
+    /***
+     * Function to get the bytes that do not fill a complete block yet
+     * @return The pending bytes; callers must not modify them
+     */
+    byte[] getPending() {
+        return pending;
+    }
+
+    /***
+     * Function to get the number of bytes absorbed
+     * @return Total length of the absorbed input in bytes
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     Packs the midstate into bytes, for stores that keep it in a byte array: the eight state words and the
+     length, big-endian, followed by the pending bytes.
+     @return 40 bytes plus the pending bytes
+     */
+    byte[] encode() {
+        byte[] bytes = new byte[40 + pending.length];
+        for (int i = 0; i < 8; i++) {
+            for (int b = 0; b < 4; b++) {
+                bytes[4 * i + b] = (byte) (state[i] >>> (24 - 8 * b));
+            }
+        }
+        for (int b = 0; b < 8; b++) {
+            bytes[32 + b] = (byte) (length >>> (56 - 8 * b));
+        }
+        System.arraycopy(pending, 0, bytes, 40, pending.length);
+        return bytes;
+    }
+
+    /**
+     Unpacks a midstate packed by encode().
+     @param bytes the array holding it
+     @param offset where it starts in the array
+     @param count how many bytes it has
+     @return the midstate
+     */
+    static Sha256Midstate decode(byte[] bytes, int offset, int count) {
+        int[] state = new int[8];
+        for (int i = 0; i < 8; i++) {
+            for (int b = 0; b < 4; b++) {
+                state[i] = state[i] << 8 | (bytes[offset + 4 * i + b] & 0xFF);
+            }
+        }
+        long length = 0;
+        for (int b = 0; b < 8; b++) {
+            length = length << 8 | (bytes[offset + 32 + b] & 0xFF);
+        }
+        byte[] pending = java.util.Arrays.copyOfRange(bytes, offset + 40, offset + count);
+        return new Sha256Midstate(state, pending, length);
+    }
+
+    /**
+     Runs the SHA-256 compression function over one 64-byte block.
+     @param h the eight state words, updated in place
+     @param block the array holding the block
+     @param offset the position of the block in the array
+     @param w a scratch array of at least 64 words for the message schedule
+     */
+    static void compress(int[] h, byte[] block, int offset, int[] w) {
+        for (int t = 0; t < 16; t++) {
+            int i = offset + 4 * t;
+            w[t] = (block[i] << 24) | ((block[i + 1] & 0xFF) << 16) | ((block[i + 2] & 0xFF) << 8) | (block[i + 3] & 0xFF);
+        }
+        for (int t = 16; t < 64; t++) {
+            int s0 = Integer.rotateRight(w[t - 15], 7) ^ Integer.rotateRight(w[t - 15], 18) ^ (w[t - 15] >>> 3);
+            int s1 = Integer.rotateRight(w[t - 2], 17) ^ Integer.rotateRight(w[t - 2], 19) ^ (w[t - 2] >>> 10);
+            w[t] = w[t - 16] + s0 + w[t - 7] + s1;
+        }
+        int a = h[0], b = h[1], c = h[2], d = h[3], e = h[4], f = h[5], g = h[6], hh = h[7];
+        for (int t = 0; t < 64; t++) {
+            int s1 = Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25);
+            int ch = (e & f) ^ (~e & g);
+            int temp1 = hh + s1 + ch + K[t] + w[t];
+            int s0 = Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22);
+            int maj = (a & b) ^ (a & c) ^ (b & c);
+            int temp2 = s0 + maj;
+            hh = g;
+            g = f;
+            f = e;
+            e = d + temp1;
+            d = c;
+            c = b;
+            b = a;
+            a = temp1 + temp2;
+        }
+        h[0] += a;
+        h[1] += b;
+        h[2] += c;
+        h[3] += d;
+        h[4] += e;
+        h[5] += f;
+        h[6] += g;
+        h[7] += hh;
+    }
+
+    /**
+     Converts the eight state words to the 32-byte big-endian digest.
+     @param h the state words
+     @return the digest bytes
+     */
+    static byte[] toBytes(int[] h) {
+        byte[] out = new byte[32];
+        for (int i = 0; i < 8; i++) {
+            out[4 * i] = (byte) (h[i] >>> 24);
+            out[4 * i + 1] = (byte) (h[i] >>> 16);
+            out[4 * i + 2] = (byte) (h[i] >>> 8);
+            out[4 * i + 3] = (byte) h[i];
+        }
+        return out;
+    }
+}
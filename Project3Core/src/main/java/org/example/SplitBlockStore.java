@@ -0,0 +1,325 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements a BlockStore that splits every Block into a small header kept in memory and a
+ * body, the transaction data, kept in a file. The header holds the index, timestamp, previous hash, nonce,
+ * difficulty and target, and a payload digest: the SHA-256 midstate of the start of the hash input, which
+ * is the index, timestamp and data. The hash of a Block is finished from that midstate and the rest of the
+ * header, so verification and status never read a body, and the hashes are the same as those of the other
+ * stores. A body is only read when a whole Block is asked for, for instance by getData() or the view.
+ *
+ * The bodies are written to the file named by the system property blockchain.storage.bodyFile, or to a
+ * temporary file that is deleted when the JVM exits. A named file that already holds data, for instance the
+ * bodies of an earlier run, is refused rather than emptied. close() closes the file. Replacing the data of a
+ * Block appends a new body, and pruning a Block drops the header's pointer to its body. Once the file holds
+ * more unused bodies than used ones, and at least 64 KB of them, it is compacted: the used bodies are copied
+ * to a new file that is then moved over it. Pruning frees no memory in this store, since every header keeps
+ * its payload digest anyway, only space in the file. Like ColumnarBlockStore, headers keep timestamps to the
+ * millisecond and nonces that fit a long, and bodies are kept as UTF-8, so data with an unpaired surrogate
+ * is rejected.
+ */
+
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+
+public class SplitBlockStore implements BlockStore {
+
+    // Stores how many bytes of the file have to be unused before it is compacted
+    private static final long COMPACT_MIN_BYTES = 1 << 16;
+
+    // Stores the headers of the Blocks
+    private final ArrayList<Header> headers = new ArrayList<>();
+    // Stores the file of the bodies, and the bodies of the Blocks one after the other
+    private final File file;
+    private RandomAccessFile bodies;
+    // Stores how many bytes the file has, and how many of them are bodies the headers point to
+    private long fileBytes;
+    private long liveBytes;
+
+    /**
+     The part of a Block that stays in memory.
+     */
+    private static class Header {
+        int index;
+        long timeMillis;
+        Hash256 previousHash;
+        long nonce;
+        int difficulty;
+        Hash256 target;
+        // Stores the SHA-256 midstate of index + timestamp + data
+        Sha256Midstate payloadDigest;
+        // Stores where the body starts in the file and how many bytes it has
+        long bodyOffset;
+        int bodyLength;
+    }
+
+    /**
+     Creates an empty store writing its bodies to the configured file, or to a temporary one.
+     */
+    public SplitBlockStore() {
+        this(System.getProperty("blockchain.storage.bodyFile"));
+    }
+
+    /**
+     Creates an empty store writing its bodies to the given file, which must be new or empty.
+     @param bodyFile the path of the file, or null for a temporary file
+     @throws IllegalArgumentException if the file already holds data
+     @throws UncheckedIOException if the file cannot be created
+     */
+    public SplitBlockStore(String bodyFile) {
+        try {
+            if (bodyFile == null) {
+                file = File.createTempFile("blockchain-bodies", ".dat");
+                file.deleteOnExit();
+            } else {
+                file = new File(bodyFile);
+                if (file.length() > 0) {
+                    throw new IllegalArgumentException("The body file " + file + " already holds " + file.length()
+                            + " bytes; remove it or name another one in blockchain.storage.bodyFile");
+                }
+            }
+            bodies = new RandomAccessFile(file, "rw");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the body file", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return headers.size();
+    }
+
+    @Override
+    public Block get(int i) {
+        Header header = headers.get(i);
+        Block block = new Block(header.index, new Timestamp(header.timeMillis),
+                header.bodyOffset < 0 ? null : readBody(header), header.difficulty);
+        if (header.bodyOffset < 0) {
+            block.setPrunedPayload(header.payloadDigest);
+        }
+        block.setPreviousHash(header.previousHash);
+        block.setNonce(BigInteger.valueOf(header.nonce));
+        block.setTarget(header.target);
+        return block;
+    }
+
+    @Override
+    public void add(Block block) {
+        Header header = new Header();
+        store(header, block);
+        headers.add(header);
+    }
+
+    @Override
+    public void set(int i, Block block) {
+        store(headers.get(i), block);
+        compactIfWasteful();
+    }
+
+    @Override
+    public void truncate(int size) {
+        // The bodies of the removed Blocks stay in the file, like replaced ones, until it is compacted
+        for (Header header : headers.subList(size, headers.size())) {
+            if (header.bodyOffset >= 0) {
+                liveBytes -= header.bodyLength;
+            }
+        }
+        headers.subList(size, headers.size()).clear();
+        compactIfWasteful();
+    }
+
+    @Override
+    public long getTimeMillis(int i) {
+        return headers.get(i).timeMillis;
+    }
+
+    @Override
+    public int getDifficulty(int i) {
+        return headers.get(i).difficulty;
+    }
+
+    @Override
+    public Hash256 getTarget(int i) {
+        return headers.get(i).target;
+    }
+
+    @Override
+    public Hash256 getPreviousHash(int i) {
+        return headers.get(i).previousHash;
+    }
+
+    @Override
+    public BigInteger getNonce(int i) {
+        return BigInteger.valueOf(headers.get(i).nonce);
+    }
+
+    @Override
+    public Sha256Midstate getPayloadDigest(int i) {
+        return headers.get(i).payloadDigest;
+    }
+
+    @Override
+    public boolean isPruned(int i) {
+        return headers.get(i).bodyOffset < 0;
+    }
+
+    @Override
+    public Hash256 computeHash(int i) {
+        Header header = headers.get(i);
+        String rest = String.valueOf(header.previousHash) + header.nonce
+                + Block.hashSuffix(header.difficulty, header.target);
+        return Hash256.fromBytes(header.payloadDigest.digest(rest.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public String getName() {
+        return "split";
+    }
+
+    @Override
+    public void close() {
+        try {
+            bodies.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close the body file", e);
+        }
+    }
+
+    /**
+     Writes a Block into a header, appending its body to the file unless the header already points to it.
+     @param header the header to fill
+     @param block the Block to store
+     @throws IllegalArgumentException if the timestamp, nonce or data does not fit the header and the file
+     */
+    private void store(Header header, Block block) {
+        Timestamp timestamp = block.getTimestamp();
+        if (timestamp.getNanos() % 1_000_000 != 0) {
+            throw new IllegalArgumentException("Split storage keeps timestamps to the millisecond: " + timestamp);
+        }
+        if (block.getNonce().bitLength() > 63) {
+            throw new IllegalArgumentException("Split storage keeps nonces that fit a long: " + block.getNonce());
+        }
+        Sha256Midstate payloadDigest = block.getPayloadDigest();
+        // A new header has no payload digest yet and no body
+        boolean hasBody = header.payloadDigest != null && header.bodyOffset >= 0;
+        if (block.isPruned()) {
+            // The old body stays in the file until it is compacted, but the chain no longer points to it
+            if (hasBody) {
+                liveBytes -= header.bodyLength;
+            }
+            header.bodyOffset = -1;
+            header.bodyLength = 0;
+        } else if (!hasBody || !header.payloadDigest.sameAs(payloadDigest)) {
+            // A re-mined Block has the same payload, so its body is not written again
+            byte[] bytes = Block.dataBytes(block.getData());
+            if (hasBody) {
+                liveBytes -= header.bodyLength;
+            }
+            writeBody(header, bytes);
+            liveBytes += bytes.length;
+        }
+        header.index = block.getIndex();
+        header.timeMillis = timestamp.getTime();
+        header.previousHash = block.getPreviousHash();
+        header.nonce = block.getNonce().longValue();
+        header.difficulty = block.getDifficulty();
+        header.target = block.getTarget();
+        header.payloadDigest = payloadDigest;
+    }
+
+    /**
+     Appends a body to the file and points the header to it.
+     @param header the header of the Block
+     @param bytes the transaction data of the Block as UTF-8
+     */
+    private void writeBody(Header header, byte[] bytes) {
+        try {
+            bodies.seek(fileBytes);
+            bodies.write(bytes);
+            header.bodyOffset = fileBytes;
+            header.bodyLength = bytes.length;
+            fileBytes += bytes.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the body of block " + header.index, e);
+        }
+    }
+
+    /**
+     Reads the body of a Block from the file.
+     @param header the header of the Block
+     @return the transaction data of the Block
+     */
+    private String readBody(Header header) {
+        byte[] bytes = new byte[header.bodyLength];
+        try {
+            bodies.seek(header.bodyOffset);
+            bodies.readFully(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the body of block " + header.index, e);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     Compacts the file once more of it is unused than used: the bodies the headers point to are copied, in
+     order, to a new file beside it, which is then moved over it. The headers only point to the new file once
+     the move succeeded. Each compaction copies at most as many bytes as became unused since the last one.
+     @throws UncheckedIOException if the file cannot be compacted
+     */
+    private void compactIfWasteful() {
+        long unused = fileBytes - liveBytes;
+        if (unused < COMPACT_MIN_BYTES || unused <= liveBytes) {
+            return;
+        }
+        File compacted = new File(file.getPath() + ".compact");
+        long[] offsets = new long[headers.size()];
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(compacted), 1 << 16)) {
+                long position = 0;
+                for (int i = 0; i < headers.size(); i++) {
+                    Header header = headers.get(i);
+                    if (header.bodyOffset < 0) {
+                        continue;
+                    }
+                    byte[] bytes = new byte[header.bodyLength];
+                    bodies.seek(header.bodyOffset);
+                    bodies.readFully(bytes);
+                    out.write(bytes);
+                    offsets[i] = position;
+                    position += bytes.length;
+                }
+            }
+            bodies.close();
+            try {
+                Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Reopen the file, the compacted one or, if it could not be moved, the old one
+                bodies = new RandomAccessFile(file, "rw");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact the body file", e);
+        }
+        for (int i = 0; i < headers.size(); i++) {
+            if (headers.get(i).bodyOffset >= 0) {
+                headers.get(i).bodyOffset = offsets[i];
+            }
+        }
+        fileBytes = liveBytes;
+    }
+}
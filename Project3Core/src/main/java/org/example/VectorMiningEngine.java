@@ -0,0 +1,65 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file is the optional SIMD mining engine. It hashes one nonce per vector lane with
+ * VectorMiningHasher when the jdk.incubator.vector module is present, which it is only when the
+ * JVM is started with --add-modules jdk.incubator.vector. Otherwise it falls back to the scalar
+ * MiningHasher. Both find the same nonce for the same Block.
+ *
+ * The system property blockchain.mining.vectorBits picks the vector width (256 or 512);
+ * by default the widest width of the CPU is used.
+ */
+
+package org.example;
+
+import java.math.BigInteger;
+
+public class VectorMiningEngine implements MiningEngine {
+
+    // Stores whether the incubator Vector API can be used in this JVM
+    private static final boolean AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /***
+     * Function to check whether the vector engine is in use
+     * @return true if the jdk.incubator.vector module is present, false if mining falls back to the scalar engine
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     Mines the Block by trying nonces upwards from its current nonce, one nonce per vector lane.
+     @param block the Block to be mined
+     @param cancellation checked between chunks of nonces
+     @return the SHA-256 hash of the Block with the nonce that was found
+     */
+    public Hash256 mine(Block block, MiningCancellation cancellation) {
+        long start = block.getNonce().longValueExact();
+        MiningHasher hasher = new MiningHasher(block);
+        VectorMiningHasher vector = AVAILABLE ? new VectorMiningHasher(block) : null;
+        long found = -1;
+        while (found < 0) {
+            cancellation.throwIfCancelled();
+            long end = start + CANCELLATION_CHECK_INTERVAL;
+            found = vector != null ? vector.findNonce(start, end) : hasher.findNonce(start, end);
+            start = end;
+        }
+        block.setNonce(BigInteger.valueOf(found));
+        return hasher.hashOf(found);
+    }
+
+    public String getName() {
+        return "vector";
+    }
+
+    /***
+     * Function to get the number of nonces hashed per pass
+     * @return The number of vector lanes, or 1 when the scalar fallback is in use
+     */
+    public static int getLanes() {
+        return AVAILABLE ? VectorMiningHasher.getLanes() : 1;
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file searches for the proof of work of a Block with the jdk.incubator.vector API.
+ * Every SIMD lane hashes a different nonce, so one pass of the SHA-256 rounds tries as many
+ * nonces as the vector species has int lanes (8 with AVX2, 16 with AVX-512). The fixed prefix
+ * of the hash input is compressed once, as in MiningHasher.
+ *
+ * This class needs the incubator module at run time. Only VectorMiningEngine may refer to it,
+ * and only after checking VectorMiningEngine.isAvailable().
+ */
+
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorMiningHasher {
+
+    // Stores the vector shape used for the search. It has to be a constant for the JIT to emit SIMD code,
+    // so the width is read once from the system property blockchain.mining.vectorBits (128, 256 or 512)
+    private static final VectorSpecies<Integer> species = chooseSpecies(Integer.getInteger("blockchain.mining.vectorBits", 0));
+    // Stores the number of nonces hashed per pass
+    private static final int lanes = species.length();
+    // Stores the compression state of the fixed part of the hash input
+    private final Sha256Midstate midstate;
+    // Stores the number of prefix bytes that are already in the tail buffer
+    private final int pendingLength;
+    // Stores the difficulty digits and the target that follow the nonce in the hash input
+    private final byte[] suffixBytes;
+    // Stores the minimum number of left most hex digits needed by a proper hash
+    private final int difficulty;
+    // Stores the target of the Block as eight words, or null if only the difficulty applies
+    private final int[] targetWords;
+    // Used for the nonces of a batch whose digit counts differ
+    private final MiningHasher scalar;
+
+    // Stores the final blocks of the hash input for the current nonce length
+    private final byte[] tail = new byte[192];
+    // Stores the tail as big-endian words; the nonce words are rewritten per lane
+    private final int[] tailWords = new int[48];
+    // Stores the number of decimal digits of the nonces the template was built for
+    private int templateDigits = -1;
+    // Stores the number of tail bytes that are hashed, a multiple of 64
+    private int tailEnd;
+    // Stores the first and last tail word that contains nonce digits
+    private int firstNonceWord;
+    private int lastNonceWord;
+    // Stores the nonce words of every lane, word-major
+    private final int[] nonceWords;
+    // Scratch space for the message schedule of every lane, word-major
+    private final int[] w;
+
+    /**
+     Creates a vector hasher for the given Block.
+     @param block the Block to be mined
+     */
+    VectorMiningHasher(Block block) {
+        // Same encoding as Block.calculateHash(); pruned Blocks only have the payload digest left
+        this.midstate = block.getPayloadDigest().extend(String.valueOf(block.getPreviousHash()).getBytes(StandardCharsets.UTF_8));
+        this.pendingLength = midstate.getPending().length;
+        this.difficulty = block.getDifficulty();
+        this.suffixBytes = Block.hashSuffix(difficulty, block.getTarget()).getBytes(StandardCharsets.UTF_8);
+        this.targetWords = block.getTarget() == null ? null : MiningHasher.targetWords(block.getTarget());
+        this.scalar = new MiningHasher(block);
+        this.nonceWords = new int[8 * lanes];
+        this.w = new int[64 * lanes];
+        System.arraycopy(midstate.getPending(), 0, tail, 0, pendingLength);
+    }
+
+    // Returns the species of the given width in bits, or the preferred species of this CPU
+    private static VectorSpecies<Integer> chooseSpecies(int bits) {
+        switch (bits) {
+            case 128: return IntVector.SPECIES_128;
+            case 256: return IntVector.SPECIES_256;
+            case 512: return IntVector.SPECIES_512;
+            default: return IntVector.SPECIES_PREFERRED;
+        }
+    }
+
+    /***
+     * Function to get the number of nonces hashed per pass
+     * @return The number of int lanes of the vector species
+     */
+    static int getLanes() {
+        return lanes;
+    }
+
+    /**
+     Tries nonces upwards from the given one until a hash with enough leading zeros is found.
+     The result is the same nonce MiningHasher.findNonce() returns.
+     @param startNonce the first nonce to try, must not be negative
+     @return the first nonce at or after startNonce that satisfies the difficulty
+     */
+    long findNonce(long startNonce) {
+        return findNonce(startNonce, Long.MAX_VALUE);
+    }
+
+    /**
+     Tries the nonces from startNonce up to, but not including, endNonce.
+     @param startNonce the first nonce to try, must not be negative
+     @param endNonce the nonce at which the search stops
+     @return the first nonce in the range that satisfies the difficulty, or -1 if there is none
+     */
+    long findNonce(long startNonce, long endNonce) {
+        long nonce = startNonce;
+        while (nonce < endNonce) {
+            long last = Math.min(nonce + lanes, endNonce) - 1;
+            int digits = digitCount(nonce);
+            if (last - nonce + 1 < lanes || digitCount(last) != digits) {
+                // The batch is short or the tail length changes inside it, so hash it one nonce at a time
+                for (long n = nonce; n <= last; n++) {
+                    if (scalar.tryNonce(n)) {
+                        return n;
+                    }
+                }
+            } else {
+                int lane = searchBatch(nonce, digits);
+                if (lane >= 0) {
+                    return nonce + lane;
+                }
+            }
+            nonce = last + 1;
+        }
+        return -1;
+    }
+
+    // Hashes the nonces start .. start + lanes - 1, which all have the given number of digits,
+    // and returns the lowest lane that satisfies the difficulty, or -1
+    private int searchBatch(long start, int digits) {
+        if (digits != templateDigits) {
+            buildTemplate(digits);
+        }
+        int wordCount = lastNonceWord - firstNonceWord + 1;
+        for (int lane = 0; lane < lanes; lane++) {
+            long n = start + lane;
+            for (int i = pendingLength + digits - 1; i >= pendingLength; i--) {
+                tail[i] = (byte) ('0' + (n % 10));
+                n /= 10;
+            }
+            for (int k = 0; k < wordCount; k++) {
+                nonceWords[k * lanes + lane] = readWord(firstNonceWord + k);
+            }
+        }
+
+        int[] iv = midstate.getState();
+        IntVector a = IntVector.broadcast(species, iv[0]);
+        IntVector b = IntVector.broadcast(species, iv[1]);
+        IntVector c = IntVector.broadcast(species, iv[2]);
+        IntVector d = IntVector.broadcast(species, iv[3]);
+        IntVector e = IntVector.broadcast(species, iv[4]);
+        IntVector f = IntVector.broadcast(species, iv[5]);
+        IntVector g = IntVector.broadcast(species, iv[6]);
+        IntVector h = IntVector.broadcast(species, iv[7]);
+        // The state after each tail block carries over into the next one
+        for (int block = 0; block < tailEnd / 64; block++) {
+            schedule(block * 16);
+            IntVector a0 = a, b0 = b, c0 = c, d0 = d, e0 = e, f0 = f, g0 = g, h0 = h;
+            for (int t = 0; t < 64; t++) {
+                IntVector s1 = e.lanewise(VectorOperators.ROR, 6)
+                        .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 11))
+                        .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 25));
+                IntVector ch = e.and(f).lanewise(VectorOperators.XOR, e.not().and(g));
+                IntVector temp1 = h.add(s1).add(ch).add(Sha256Midstate.K[t]).add(IntVector.fromArray(species, w, t * lanes));
+                IntVector s0 = a.lanewise(VectorOperators.ROR, 2)
+                        .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 13))
+                        .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 22));
+                IntVector maj = a.and(b).lanewise(VectorOperators.XOR, a.and(c)).lanewise(VectorOperators.XOR, b.and(c));
+                h = g;
+                g = f;
+                f = e;
+                e = d.add(temp1);
+                d = c;
+                c = b;
+                b = a;
+                a = temp1.add(s0.add(maj));
+            }
+            a = a.add(a0);
+            b = b.add(b0);
+            c = c.add(c0);
+            d = d.add(d0);
+            e = e.add(e0);
+            f = f.add(f0);
+            g = g.add(g0);
+            h = h.add(h0);
+        }
+
+        IntVector[] words = {a, b, c, d, e, f, g, h};
+        VectorMask<Integer> found = species.maskAll(true);
+        int fullWords = Math.min(Math.max(difficulty, 0) / 8, 8);
+        for (int i = 0; i < fullWords; i++) {
+            found = found.and(words[i].compare(VectorOperators.EQ, 0));
+        }
+        int nibbles = Math.max(difficulty, 0) % 8;
+        if (difficulty > 64) {
+            found = species.maskAll(false);
+        } else if (nibbles > 0) {
+            found = found.and(words[fullWords].lanewise(VectorOperators.LSHR, 32 - 4 * nibbles)
+                    .compare(VectorOperators.EQ, 0));
+        }
+        if (!found.anyTrue()) {
+            return -1;
+        }
+        if (targetWords == null) {
+            return found.firstTrue();
+        }
+        // Lanes with enough leading zeros are rare, so the finer target is checked one lane at a time
+        int[][] laneWords = new int[8][lanes];
+        for (int i = 0; i < 8; i++) {
+            words[i].intoArray(laneWords[i], 0);
+        }
+        int[] hash = new int[8];
+        for (int lane = 0; lane < lanes; lane++) {
+            if (found.laneIsSet(lane)) {
+                for (int i = 0; i < 8; i++) {
+                    hash[i] = laneWords[i][lane];
+                }
+                if (MiningHasher.isWithinTarget(hash, targetWords)) {
+                    return lane;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Fills the message schedule of every lane for the tail block starting at the given word
+    private void schedule(int firstWord) {
+        for (int t = 0; t < 16; t++) {
+            int word = firstWord + t;
+            IntVector v;
+            if (word >= firstNonceWord && word <= lastNonceWord) {
+                v = IntVector.fromArray(species, nonceWords, (word - firstNonceWord) * lanes);
+            } else {
+                v = IntVector.broadcast(species, tailWords[word]);
+            }
+            v.intoArray(w, t * lanes);
+        }
+        for (int t = 16; t < 64; t++) {
+            IntVector w15 = IntVector.fromArray(species, w, (t - 15) * lanes);
+            IntVector w2 = IntVector.fromArray(species, w, (t - 2) * lanes);
+            IntVector s0 = w15.lanewise(VectorOperators.ROR, 7)
+                    .lanewise(VectorOperators.XOR, w15.lanewise(VectorOperators.ROR, 18))
+                    .lanewise(VectorOperators.XOR, w15.lanewise(VectorOperators.LSHR, 3));
+            IntVector s1 = w2.lanewise(VectorOperators.ROR, 17)
+                    .lanewise(VectorOperators.XOR, w2.lanewise(VectorOperators.ROR, 19))
+                    .lanewise(VectorOperators.XOR, w2.lanewise(VectorOperators.LSHR, 10));
+            IntVector.fromArray(species, w, (t - 16) * lanes).add(s0)
+                    .add(IntVector.fromArray(species, w, (t - 7) * lanes)).add(s1)
+                    .intoArray(w, t * lanes);
+        }
+    }
+
+    // Lays out the tail for nonces with the given number of digits, leaving the digits to be filled per lane
+    private void buildTemplate(int digits) {
+        int position = pendingLength + digits;
+        System.arraycopy(suffixBytes, 0, tail, position, suffixBytes.length);
+        position += suffixBytes.length;
+        tailEnd = MiningHasher.paddedLength(position);
+        tail[position] = (byte) 0x80;
+        for (int i = position + 1; i < tail.length; i++) {
+            tail[i] = 0;
+        }
+        long bitLength = (midstate.getLength() + position - pendingLength) * 8;
+        for (int i = 0; i < 8; i++) {
+            tail[tailEnd - 1 - i] = (byte) (bitLength >>> (8 * i));
+        }
+        for (int k = 0; k < tailEnd / 4; k++) {
+            tailWords[k] = readWord(k);
+        }
+        firstNonceWord = pendingLength / 4;
+        lastNonceWord = (pendingLength + digits - 1) / 4;
+        templateDigits = digits;
+    }
+
+    // Reads the big-endian word at the given word position of the tail
+    private int readWord(int word) {
+        int i = 4 * word;
+        return (tail[i] << 24) | ((tail[i + 1] & 0xFF) << 16) | ((tail[i + 2] & 0xFF) << 8) | (tail[i + 3] & 0xFF);
+    }
+
+    // Returns the number of decimal digits of a non-negative number
+    private static int digitCount(long n) {
+        int count = 1;
+        while (n >= 10) {
+            n /= 10;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file defines the Java Flight Recorder event of verifying the chain, see BlockChain.isChainValid().
+ */
+
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.Verify")
+@Label("Verify Chain")
+@Category("Blockchain")
+@Description("Checking the hashes and links of the Blocks of the chain")
+@StackTrace(false)
+public class VerifyEvent extends jdk.jfr.Event {
+
+    @Label("Blocks Scanned")
+    int blocksScanned;
+
+    @Label("Chain Size")
+    int chainSize;
+
+    @Label("Checkpoint")
+    @Description("The position of the checkpoint verification started from, or -1 if it started at the first Block")
+    int checkpoint;
+
+    @Label("Full Audit")
+    boolean fullAudit;
+
+    @Label("Valid")
+    boolean valid;
+}
@@ -0,0 +1,184 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file is the menu-driven console for a local BlockChain. The Block and BlockChain classes
+ * live in Project3Core, which is shared with the server in Project3Task1. Blocks are mined with the
+ * MiningEngine selected by the system property blockchain.mining.engine.
+ */
+
+package org.example;
+
+import java.sql.Timestamp;
+import java.util.Scanner;
+
+public class BlockChainCLI {
+
+    public static void main(String[] args) {
+
+        // Create a new object of the BlockChain
+        BlockChain blockChain = new BlockChain();
+        // Create the first Block, called the genesis Block
+        Block genesis = new Block(0, BlockChain.getTime(), "Genesis", 2);
+        // Set the previous hash of the genesis block to be an empty String
+        genesis.setPreviousHash(Hash256.EMPTY);
+        // Compute the hashes per second on this system
+        blockChain.computeHashesPerSecond();
+        // Mine the genesis Block, update the chain hash and add it to the chain
+        blockChain.addBlock(genesis);
+
+        // Prompt to the user
+        System.out.println("0. View basic blockchain status.\n" +
+                "1. Add a transaction to the blockchain.\n" +
+                "2. Verify the blockchain.\n" +
+                "3. View the blockchain.\n" +
+                "4. Corrupt the chain.\n" +
+                "5. Hide the corruption by repairing the chain.\n" +
+                "6. Exit");
+
+        // Create a Scanner object
+        Scanner s = new Scanner(System.in);
+        // Get first input from the user
+        int userInput = s.nextInt();
+        // Until the user does not input 6
+        while (userInput != 6) {
+
+            switch(userInput){
+                case 0:{
+                    // Displays the necessary details
+                    System.out.println("Current size of chain: " + blockChain.getChainSize());
+                    System.out.println("Difficulty of most recent block: " + blockChain.getLatestBlock().getDifficulty());
+                    System.out.println("Total difficulty for all blocks: " + blockChain.getTotalDifficulty());
+                    System.out.println("Approximate hashes per second on this machine: " + blockChain.getHashesPerSecond());
+                    System.out.println("Expected total hashes required for the whole chain: " + String.format("%.6f", blockChain.getTotalExpectedHashes()));
+                    System.out.println("Nonce for most recent block: " + blockChain.getLatestBlock().getNonce());
+                    System.out.println("Chain hash: " + blockChain.getChainHash());
+                }; break;
+                case 1:{
+                    System.out.println("Enter difficulty > 0");
+                    int difficulty = s.nextInt();
+                    System.out.println("Enter transaction");
+                    s.nextLine();
+                    String transaction = s.nextLine();
+                    Block newBlock = new Block(blockChain.getChainSize(), BlockChain.getTime(), transaction, difficulty);
+                    // Set previous hash of the new Block to be the chain hash
+                    newBlock.setPreviousHash(blockChain.getChainHash());
+                    Timestamp t1 = BlockChain.getTime();
+                    // Add Block to BlockChain
+                    blockChain.addBlock(newBlock);
+                    Timestamp t2 = BlockChain.getTime();
+                    double timeDifference = t2.getTime() - t1.getTime();
+                    System.out.println("Total execution time to add this block was " + (int)timeDifference + " milliseconds");
+                }; break;
+                case 2:{
+                    Timestamp t1 = BlockChain.getTime();
+                    // Compute chain verification result
+                    String chainVerificationResult = blockChain.isChainValid();
+                    Timestamp t2 = BlockChain.getTime();
+                    double timeDifference = t2.getTime() - t1.getTime();
+                    // If the result of chain verification is true
+                    if (chainVerificationResult.equals("TRUE")) {
+                        System.out.println("Chain verification: " + chainVerificationResult);
+                    }
+                    // If the result of chain verification is false
+                    else {
+                        System.out.println("Chain verification: FALSE");
+                        System.out.println(chainVerificationResult);
+                    }
+                    System.out.println("Total execution time to verify the chain was " + (int)timeDifference + " milliseconds");
+                }; break;
+                case 3:{
+                    System.out.println("View the Blockchain");
+                    System.out.println(blockChain);
+                }; break;
+                case 4:{
+                    System.out.println("Corrupt the Blockchain");
+                    System.out.println("Enter block ID of block to corrupt");
+                    int blockID = s.nextInt();
+                    System.out.println("Enter new data for block " + blockID);
+                    s.nextLine();
+                    String newData = s.nextLine();
+                    if (blockChain.getBlockStore().isPruned(blockID)) {
+                        System.out.println("Block " + blockID + " was pruned and has no data to change");
+                        break;
+                    }
+                    // Update new data of Block in the chain
+                    blockChain.corruptBlock(blockID, newData);
+                    // Update user about the corruption
+                    System.out.println("Block " + blockID + " now holds " + blockChain.getBlock(blockID).getData());
+                }; break;
+                case 5:{
+                    Timestamp t1 = BlockChain.getTime();
+                    // Repair block chain
+                    blockChain.repairChain();
+                    Timestamp t2 = BlockChain.getTime();
+                    double timeDifference = t2.getTime() - t1.getTime();
+                    System.out.println("Total execution time required to repair the chain was " + (int)timeDifference + " milliseconds");
+                }; break;
+                default:{
+                    System.out.println("Incorrect submission. Client closing.");
+                };break;
+            }
+
+            // Prompt to user for next input
+            System.out.println("0. View basic blockchain status.\n" +
+                    "1. Add a transaction to the blockchain.\n" +
+                    "2. Verify the blockchain.\n" +
+                    "3. View the blockchain.\n" +
+                    "4. Corrupt the chain.\n" +
+                    "5. Hide the corruption by repairing the chain.\n" +
+                    "6. Exit");
+
+            // Get next input from user
+            userInput = s.nextInt();
+        }
+
+
+        /*
+        Analysis
+
+        Increasing the difficulty of new blocks results in a significant increase in the time required
+        to add blocks using the addBlock() method, with an exponential increase observed in the approximate
+        time taken as the difficulty increases. However, the time required to verify the chain using the
+        isChainValid() method remains almost constant, regardless of the maximum difficulty present in the blockchain.
+        Conversely, the time required for repairing the chain using chainRepair() increases substantially with
+        increasing difficulties.
+
+
+        1. For addBlock():
+
+        - As the difficulty of adding new blocks to the blockchain increases, the time required for this process
+        also increases exponentially. This is due to the increasing difficulty of finding the proof of work and
+        generating a valid hash, which becomes increasingly challenging for the system.
+        The difficulty vs time taken are as follows:
+        1 - 1 milliseconds
+        2 - 5 milliseconds
+        3 - 30 milliseconds
+        4 - 58 milliseconds
+        5 - 257 milliseconds
+        6 - 22556 milliseconds
+
+        2. For isChainValid():
+
+        - In terms of validating the blockchain, the time it takes to determine whether the chain is
+        valid remains relatively constant as the maximum difficulty level increases from 1 to 6.
+        This is due to the fact that the proof of work does not need to be computed with increasing difficulty
+        levels, only a hash needs to be found and compared with the difficulty level, making it a simpler process.
+
+
+        3. For chainRepair():
+
+        -	The approximate time it takes to repair a corrupted blockchain using chainRepair() significantly
+        increases as the maximum difficulty of the blocks in the blockchain increases. Similar to addBlock(),
+        there is an exponential increase in the time required to repair the chain as the maximum difficulty increases.
+        The difficulty vs time taken are as follows:
+        1 - 1 milliseconds
+        2 - 3 milliseconds
+        3 - 9 milliseconds
+        4 - 11 milliseconds
+        5 - 457 milliseconds
+        6 - 2527 milliseconds
+         */
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ Represents a request message for adding a new block to the blockchain.
+ Inherits from the RequestMessage class and adds additional variables to store
+ the difficulty of the new block and the transaction data to be stored on the new block.
+ */
+public class AddRequestMessage extends RequestMessage {
+    int difficulty;
+    String transactionData;
+    // Stores how long the server may mine for this block in milliseconds, 0 for the server's limit
+    long timeoutMillis;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the message
+     @param difficulty The difficulty of the new block
+     @param transactionData The transaction data to be stored on the new block
+     */
+    AddRequestMessage (int operation, int difficulty, String transactionData) {
+        this(operation, difficulty, transactionData, 0);
+    }
+
+    /**
+     Constructor to initialize the values of the instance variables, including a mining deadline.
+     @param operation The operation code for the message
+     @param difficulty The difficulty of the new block
+     @param transactionData The transaction data to be stored on the new block
+     @param timeoutMillis How long the server may mine in milliseconds; the server's own limit still applies
+     */
+    AddRequestMessage (int operation, int difficulty, String transactionData, long timeoutMillis) {
+        super.operation = operation;
+        this.difficulty = difficulty;
+        this.transactionData = transactionData;
+        this.timeoutMillis = timeoutMillis;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This class decides whether the server accepts an add request before any mining starts. The cost of a
+ * Block is known in advance: it takes 16^difficulty hashes on average (or the hashes of its target), and
+ * the server knows its hashrate. A request is rejected when its estimated mining time is above the CPU
+ * budget, or when accepting it would push the expected hashes of all accepted but unfinished requests
+ * above the cap.
+ */
+
+package org.example;
+
+public class AdmissionController {
+
+    // Stores the longest estimated mining time in milliseconds a single request may have
+    private final long maxEstimatedMillis;
+    // Stores the largest number of expected hashes that may be outstanding across all clients
+    private final double maxOutstandingHashes;
+    // Stores the expected hashes of the requests that were accepted and have not finished yet
+    private double outstandingHashes;
+
+    /**
+     Constructor to initialize the limits.
+     @param maxEstimatedMillis the CPU budget of a single request in milliseconds
+     @param maxOutstandingHashes the cap on the expected hashes of all unfinished requests
+     */
+    public AdmissionController(long maxEstimatedMillis, double maxOutstandingHashes) {
+        this.maxEstimatedMillis = maxEstimatedMillis;
+        this.maxOutstandingHashes = maxOutstandingHashes;
+    }
+
+    /**
+     Estimates how long mining takes.
+     @param expectedHashes the average number of hashes mining needs
+     @param hashesPerSecond the hashrate of the server
+     @return the estimated mining time in milliseconds
+     */
+    public static double estimateMillis(double expectedHashes, double hashesPerSecond) {
+        return expectedHashes / Math.max(hashesPerSecond, 1) * 1000;
+    }
+
+    /**
+     Accepts a request if it fits both limits. An accepted request has to be passed to release() when it finishes.
+     @param expectedHashes the average number of hashes the request's Block needs
+     @param hashesPerSecond the hashrate of the server
+     @return null if the request was accepted, otherwise why it was rejected
+     */
+    public synchronized String tryAdmit(double expectedHashes, double hashesPerSecond) {
+        double estimate = estimateMillis(expectedHashes, hashesPerSecond);
+        if (estimate > maxEstimatedMillis) {
+            return "estimated mining time of " + (long) estimate + " milliseconds is above the budget of "
+                    + maxEstimatedMillis + " milliseconds";
+        }
+        if (outstandingHashes + expectedHashes > maxOutstandingHashes) {
+            return "the server already has " + (long) outstandingHashes + " expected hashes outstanding, the limit is "
+                    + (long) maxOutstandingHashes;
+        }
+        outstandingHashes += expectedHashes;
+        return null;
+    }
+
+    /**
+     Marks an accepted request as finished, whether its Block was added or not.
+     @param expectedHashes the expected hashes the request was accepted with
+     */
+    public synchronized void release(double expectedHashes) {
+        outstandingHashes = Math.max(0, outstandingHashes - expectedHashes);
+    }
+
+    /***
+     * Function to get the expected hashes of the unfinished requests
+     * @return The expected hashes outstanding across all clients
+     */
+    public synchronized double getOutstandingHashes() {
+        return outstandingHashes;
+    }
+
+    /***
+     * Function to get the CPU budget of a single request
+     * @return The longest estimated mining time in milliseconds that is accepted
+     */
+    public long getMaxEstimatedMillis() {
+        return maxEstimatedMillis;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ This class represents a peer announcing the tip of its chain, after it mined or adopted a Block.
+ */
+public class AnnounceRequestMessage extends RequestMessage {
+    // Stores the address of the announcing peer as host:port
+    String address;
+    // Stores the tip of the announcing peer's chain
+    int chainSize;
+    Hash256 chainHash;
+    double totalWork;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the request message
+     @param address The address of the announcing peer as host:port
+     @param chainSize The size of its chain
+     @param chainHash The hash of its last Block
+     @param totalWork The expected hashes of its whole chain
+     */
+    AnnounceRequestMessage (int operation, String address, int chainSize, Hash256 chainHash, double totalWork) {
+        super.operation = operation;
+        this.address = address;
+        this.chainSize = chainSize;
+        this.chainHash = chainHash;
+        this.totalWork = totalWork;
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import com.google.gson.JsonElement;
+
+/**
+ The result of one request of a batch.
+ */
+public class BatchItemResult {
+    // Stores the operation of the request
+    int operation;
+    // Stores how long the server took for the request
+    double elapsedMillis;
+    // Stores the position and hash of the Block an add request added, null otherwise
+    Integer index;
+    Hash256 hash;
+    // Stores why the request failed, null if it did not
+    String error;
+    // Stores the response a request other than an add would get on its own, null for adds
+    JsonElement response;
+
+    BatchItemResult(int operation) {
+        this.operation = operation;
+    }
+}
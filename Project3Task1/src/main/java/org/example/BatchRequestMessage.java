@@ -0,0 +1,52 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ This class represents many requests sent together with operation 17. The server answers them in order in one
+ response, and mines the Blocks of the add requests back to back while holding the chain.
+ */
+public class BatchRequestMessage extends RequestMessage {
+    // Stores the requests, each a JSON request message with its own operation
+    List<JsonObject> requests = new ArrayList<>();
+    // Stores how long the server may mine for the whole batch in milliseconds, 0 for the server's limit
+    long timeoutMillis;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the message, 17
+     @param timeoutMillis How long the server may mine for the whole batch in milliseconds
+     */
+    BatchRequestMessage (int operation, long timeoutMillis) {
+        super.operation = operation;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     Adds a request to the batch.
+     @param request the request, one of operations 0, 1, 2, 3, 7, 8 and 9
+     @return this batch
+     */
+    BatchRequestMessage add(RequestMessage request) {
+        requests.add(new Gson().toJsonTree(request).getAsJsonObject());
+        return this;
+    }
+
+    /**
+     Adds a transaction to the batch.
+     @param difficulty The difficulty of its Block
+     @param transactionData The transaction data to be stored on its Block
+     @return this batch
+     */
+    BatchRequestMessage addTransaction(int difficulty, String transactionData) {
+        return add(new AddRequestMessage(1, difficulty, transactionData));
+    }
+}
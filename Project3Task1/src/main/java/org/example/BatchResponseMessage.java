@@ -0,0 +1,34 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import java.util.List;
+
+/**
+ A subclass of ResponseMessage that holds the results of the requests of a batch, in the order they were sent.
+ */
+public class BatchResponseMessage extends ResponseMessage {
+    // Stores the result of each request
+    List<BatchItemResult> results;
+    // Stores the number of Blocks the batch added
+    int blocksAdded;
+    // Stores how long the server took for the whole batch, including waiting for its turn to mine
+    double elapsedMillis;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number of the response
+     @param results the result of each request
+     @param blocksAdded the number of Blocks the batch added
+     @param elapsedMillis how long the server took for the whole batch
+     */
+    BatchResponseMessage (int choice, List<BatchItemResult> results, int blocksAdded, double elapsedMillis) {
+        super.choice = choice;
+        this.results = results;
+        this.blocksAdded = blocksAdded;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,470 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements a client library for ServerTCP. Every operation returns a CompletableFuture of
+ * its typed response instead of blocking the caller. Requests are sent over a bounded pool of kept-alive
+ * connections, each used by one request at a time; requests beyond the pool size wait for a free
+ * connection, so a thousand calls in flight cost as many threads as the pool has connections, not a
+ * thousand. Keep the pool smaller than the handler threads of the server, since every open connection
+ * holds one of them.
+ *
+ * A request that has no response after the timeout of the client completes exceptionally with a
+ * TimeoutException; one that could not be sent or answered completes exceptionally with the IOException as
+ * its cause. The connection of a failed request is closed rather than reused, since a late response would
+ * otherwise be read as the response to the next request. Add requests also pass the timeout to the server as their
+ * mining deadline, so the server stops mining for a caller that gave up.
+ *
+ * The server closes connections that stay idle too long. A request that only reads is sent again on a new
+ * connection when its pooled one turns out to be closed. A request that changes the chain (add, corrupt,
+ * repair, batch) is never sent twice, since the server may have carried it out before the connection closed:
+ * its pooled connection is checked first and replaced if the server closed it, and if the connection closes
+ * after the request was written the request fails with an IOException.
+ */
+
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class BlockchainClient implements AutoCloseable {
+
+    // Reads responses holding Blocks, whose timestamps use this format
+    private static final Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss.SSS").create();
+
+    // Stores the address of the server
+    private final String host;
+    private final int port;
+    // Stores how long a request may take in milliseconds, waiting for a connection included
+    private final long timeoutMillis;
+    // Stores the connections no request is using
+    private final BlockingQueue<Connection> idle;
+    // Sends the requests, one thread per connection of the pool
+    private final ExecutorService senders;
+
+    /**
+     A kept-alive connection to the server.
+     */
+    private static class Connection {
+        final Socket socket;
+        final BufferedReader in;
+        final PrintWriter out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream())));
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore exception on close
+            }
+        }
+    }
+
+    /**
+     Creates a client of the server on this computer, with 4 connections and a timeout of 30 seconds.
+     */
+    public BlockchainClient() {
+        this("localhost", 6789, 4, 30000);
+    }
+
+    /**
+     Creates a client. Connections are opened when requests need them.
+     @param host the host of the server
+     @param port the port of the server
+     @param maxConnections the most connections to keep open, and the most requests in flight at once
+     @param timeoutMillis how long a request may take in milliseconds, waiting for a connection included
+     */
+    public BlockchainClient(String host, int port, int maxConnections, long timeoutMillis) {
+        if (maxConnections < 1 || timeoutMillis < 1) {
+            throw new IllegalArgumentException("Needs at least one connection and a positive timeout");
+        }
+        this.host = host;
+        this.port = port;
+        this.timeoutMillis = timeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(maxConnections);
+        this.senders = Executors.newFixedThreadPool(maxConnections, r -> {
+            Thread thread = new Thread(r, "blockchain-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /***
+     * Function to get the status of the blockchain
+     * @return The status of the chain
+     */
+    public CompletableFuture<StatusResponseMessage> getStatus() {
+        return send(new NormalRequestMessage(0), json -> gson.fromJson(json, StatusResponseMessage.class));
+    }
+
+    /**
+     Adds a transaction to the blockchain. The timeout of the client is also the mining deadline on the server.
+     @param difficulty the difficulty of the new Block
+     @param transactionData the transaction to store in the Block
+     @return a NormalResponseMessage if the Block was added, a RejectedResponseMessage if the server would not
+     mine it, or a TimeoutResponseMessage if the server stopped mining
+     */
+    public CompletableFuture<ResponseMessage> addTransaction(int difficulty, String transactionData) {
+        return send(new AddRequestMessage(1, difficulty, transactionData, timeoutMillis),
+                BlockchainClient::parseMiningResponse);
+    }
+
+    /**
+     Sends many requests in one round trip, see ServerTCP.runBatch(). The timeout of the client is also the
+     mining deadline of the whole batch on the server.
+     @param batch the requests, for instance built with BatchRequestMessage.addTransaction()
+     @return a BatchResponseMessage with the result of each request, a RejectedResponseMessage if the server would
+     not mine the Blocks, or a TimeoutResponseMessage if the batch stopped before its turn to mine
+     */
+    public CompletableFuture<ResponseMessage> batch(BatchRequestMessage batch) {
+        batch.timeoutMillis = timeoutMillis;
+        return send(batch, json -> JsonParser.parseString(json).getAsJsonObject().has("results")
+                ? gson.fromJson(json, BatchResponseMessage.class) : parseMiningResponse(json));
+    }
+
+    /**
+     Verifies the blockchain.
+     @param fullAudit true to check every Block instead of starting from the latest checkpoint
+     @return the result of the verification
+     */
+    public CompletableFuture<VerificationResponseMessage> verify(boolean fullAudit) {
+        return send(new VerifyRequestMessage(2, fullAudit),
+                json -> gson.fromJson(json, VerificationResponseMessage.class));
+    }
+
+    /**
+     Reads the whole blockchain.
+     @return the JSON of the chain as the server sends it
+     */
+    public CompletableFuture<String> viewChain() {
+        return send(new NormalRequestMessage(3), json -> json);
+    }
+
+    /**
+     Changes the data of a Block without re-mining it.
+     @param blockID the position of the Block
+     @param data the new transaction data
+     @return the response of the server
+     */
+    public CompletableFuture<NormalResponseMessage> corruptBlock(int blockID, String data) {
+        return send(new CorruptRequestMessage(4, blockID, data), json -> gson.fromJson(json, NormalResponseMessage.class));
+    }
+
+    /**
+     Repairs the blockchain.
+     @return a NormalResponseMessage if the chain was repaired, a RejectedResponseMessage if the server would
+     not re-mine that much, or a TimeoutResponseMessage if the server stopped re-mining
+     */
+    public CompletableFuture<ResponseMessage> repairChain() {
+        return send(new NormalRequestMessage(5), BlockchainClient::parseMiningResponse);
+    }
+
+    /**
+     Looks up a Block by its hash.
+     @param hash the hash of the Block in hex
+     @return the Block found, if any
+     */
+    public CompletableFuture<LookupResponseMessage> findBlockByHash(String hash) {
+        return send(new LookupRequestMessage(7, hash, null, null),
+                json -> gson.fromJson(json, LookupResponseMessage.class));
+    }
+
+    /**
+     Looks up the Blocks holding a transaction.
+     @param transactionData the data of the transaction
+     @return the Blocks found, in chain order
+     */
+    public CompletableFuture<LookupResponseMessage> findBlocksByTransaction(String transactionData) {
+        return send(new LookupRequestMessage(8, null, transactionData, null),
+                json -> gson.fromJson(json, LookupResponseMessage.class));
+    }
+
+    /**
+     Reads one page of the Blocks mined in a time range.
+     @param fromMillis the start of the range in milliseconds since the epoch, inclusive
+     @param toMillis the end of the range in milliseconds since the epoch, inclusive
+     @param offset how many Blocks of the range to skip
+     @param limit the most Blocks to return, 0 for the server's page size
+     @return the page
+     */
+    public CompletableFuture<RangeResponseMessage> getBlocksBetween(long fromMillis, long toMillis, int offset, int limit) {
+        return send(new RangeRequestMessage(9, fromMillis, toMillis, offset, limit),
+                json -> gson.fromJson(json, RangeResponseMessage.class));
+    }
+
+    /***
+     * Function to get how often the server answered the status and view requests from its caches
+     * @return The hit and miss counts of each cache
+     */
+    public CompletableFuture<CacheStatsResponseMessage> getCacheStats() {
+        return send(new NormalRequestMessage(16), json -> gson.fromJson(json, CacheStatsResponseMessage.class));
+    }
+
+    /***
+     * Function to get the tip of the server's chain
+     * @return The size, last hash and total work of the chain
+     */
+    public CompletableFuture<TipResponseMessage> getTip() {
+        return send(new NormalRequestMessage(12), json -> gson.fromJson(json, TipResponseMessage.class));
+    }
+
+    /**
+     Reads the headers of the Blocks from a position on.
+     @param fromIndex the position of the first Block
+     @param count the most headers to return; the server caps it
+     @return the headers, in chain order
+     */
+    public CompletableFuture<HeadersResponseMessage> getHeaders(int fromIndex, int count) {
+        return send(new SyncRequestMessage(13, fromIndex, count), json -> gson.fromJson(json, HeadersResponseMessage.class));
+    }
+
+    /**
+     Reads the transaction data of the Blocks from a position on.
+     @param fromIndex the position of the first Block
+     @param count the most Blocks to return the data of; the server caps it
+     @return the data, in chain order, null for pruned Blocks
+     */
+    public CompletableFuture<BodiesResponseMessage> getBodies(int fromIndex, int count) {
+        return send(new SyncRequestMessage(14, fromIndex, count), json -> gson.fromJson(json, BodiesResponseMessage.class));
+    }
+
+    /**
+     Tells the server about the tip of a peer's chain, so that it can fetch it if it is heavier.
+     @param address the address of the peer as host:port
+     @param tip the tip of the peer's chain
+     @return the response of the server
+     */
+    public CompletableFuture<NormalResponseMessage> announce(String address, TipResponseMessage tip) {
+        return send(new AnnounceRequestMessage(15, address, tip.chainSize, tip.chainHash, tip.totalWork),
+                json -> gson.fromJson(json, NormalResponseMessage.class));
+    }
+
+    /**
+     Sends many requests at once through a small pool and prints how long they took, as a check of the library
+     against a running ServerTCP.
+     @param args optional number of requests, 200 by default, and of connections, 4 by default
+     */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("batch")) {
+            compareBatches(args.length > 1 ? Integer.parseInt(args[1]) : 10000,
+                    args.length > 2 ? Integer.parseInt(args[2]) : 1000);
+            return;
+        }
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        try (BlockchainClient client = new BlockchainClient("localhost", 6789, connections, 30000)) {
+            long start = System.nanoTime();
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                // Mostly reads, with an add every tenth request
+                futures.add(i % 10 == 0 ? client.addTransaction(1, "client " + i)
+                        : i % 2 == 0 ? client.verify(false) : client.getStatus());
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            StatusResponseMessage status = client.getStatus().join();
+            System.out.println(requests + " requests over " + connections + " connections in " + millis
+                    + " ms; the chain has " + status.chainSize + " blocks");
+        }
+    }
+
+    /**
+     Adds the same number of difficulty 1 transactions one request at a time over one kept-alive connection, then
+     in batches, and prints how long each took.
+     @param transactions the number of transactions to add each way
+     @param batchSize the number of transactions per batch
+     */
+    static void compareBatches(int transactions, int batchSize) {
+        try (BlockchainClient client = new BlockchainClient("localhost", ServerTCP.PORT, 1, 300000)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < transactions; i++) {
+                client.addTransaction(1, "single " + i).join();
+            }
+            long singleNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double serverMillis = 0;
+            for (int i = 0; i < transactions; i += batchSize) {
+                BatchRequestMessage batch = new BatchRequestMessage(17, 0);
+                for (int j = i; j < Math.min(i + batchSize, transactions); j++) {
+                    batch.addTransaction(1, "batched " + j);
+                }
+                ResponseMessage response = client.batch(batch).join();
+                if (!(response instanceof BatchResponseMessage)) {
+                    throw new IllegalStateException("The batch was not run: " + response);
+                }
+                serverMillis += ((BatchResponseMessage) response).elapsedMillis;
+            }
+            long batchNanos = System.nanoTime() - start;
+            System.out.println(String.format("%d transactions one at a time: %.0f ms (%.3f ms each)", transactions,
+                    singleNanos / 1e6, singleNanos / 1e6 / transactions));
+            System.out.println(String.format("%d transactions in batches of %d: %.0f ms (%.3f ms each), %.0f ms of"
+                    + " it on the server", transactions, batchSize, batchNanos / 1e6, batchNanos / 1e6 / transactions,
+                    serverMillis));
+        }
+    }
+
+    /**
+     Closes the connections. Requests that did not finish yet fail.
+     */
+    @Override
+    public void close() {
+        senders.shutdownNow();
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     Sends a request on a pooled connection and parses its response.
+     @param request the request
+     @param parser turns the JSON response into its typed form
+     @return the typed response, completed exceptionally if the request failed or timed out
+     */
+    private <T> CompletableFuture<T> send(RequestMessage request, Function<String, T> parser) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        String line = request.toString();
+        boolean readOnly = isReadOnly(request.operation);
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return parser.apply(exchange(line, deadline, readOnly));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, senders);
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     Sends one request line and reads the response line, on a connection from the pool.
+     @param line the JSON request
+     @param deadline when the request times out, from System.nanoTime()
+     @param readOnly true if the request does not change the chain, so it may be sent again
+     @return the JSON response
+     @throws IOException if the server could not be reached, closed the connection or did not answer in time
+     */
+    private String exchange(String line, long deadline, boolean readOnly) throws IOException {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+            // The request waited for a connection until its caller gave up
+            throw new SocketTimeoutException("Timed out before the request was sent");
+        }
+        Connection connection = idle.poll();
+        if (connection != null && !readOnly && !isOpen(connection)) {
+            // A request that may not be sent twice does not go out on a connection the server already closed
+            connection.close();
+            connection = null;
+        }
+        boolean pooled = connection != null;
+        if (connection == null) {
+            Socket socket = new Socket();
+            socket.connect(new InetSocketAddress(host, port), (int) remaining);
+            connection = new Connection(socket);
+        }
+        boolean reusable = false;
+        try {
+            connection.socket.setSoTimeout((int) Math.max(remaining, 1));
+            connection.out.println(ResponseCodec.withAcceptEncoding(line, ResponseCodec.ACCEPT_ENCODING));
+            connection.out.flush();
+            String response = ResponseCodec.decode(connection.in.readLine());
+            if (response == null) {
+                if (pooled && readOnly) {
+                    // The server closes connections that stay idle too long without reading from them;
+                    // reading again does no harm, so send it again on a new connection
+                    connection.close();
+                    return exchange(line, deadline, true);
+                }
+                throw new IOException(readOnly ? "The server closed the connection"
+                        : "The server closed the connection; the request may have been carried out, so it was not sent again");
+            }
+            reusable = true;
+            return response;
+        } finally {
+            // There is one sender per connection, so the pool always has room for it
+            if (!reusable || !idle.offer(connection)) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     Checks whether an operation only reads the chain, so that sending it twice does no harm.
+     @param operation the operation of the request
+     @return false for the operations that add, change or repair Blocks, or stop the server
+     */
+    static boolean isReadOnly(int operation) {
+        switch (operation) {
+            case 1:
+            case 4:
+            case 5:
+            case 6:
+            case 17:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     Checks, without waiting, that the server did not close a pooled connection: a closed connection reads
+     its end at once, while an open one has nothing to read and times out.
+     @param connection the connection
+     @return true if the connection can carry a request
+     */
+    private static boolean isOpen(Connection connection) {
+        try {
+            connection.socket.setSoTimeout(1);
+            // The end of the stream, or a byte nobody asked for; neither connection can be used
+            connection.in.read();
+            return false;
+        } catch (SocketTimeoutException e) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     Parses the response to an add or repair request, which depends on whether the server mined.
+     @param json the JSON response
+     @return a RejectedResponseMessage, a TimeoutResponseMessage or a NormalResponseMessage
+     */
+    static ResponseMessage parseMiningResponse(String json) {
+        JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+        if (object.has("retryAfterMillis")) {
+            return gson.fromJson(object, RejectedResponseMessage.class);
+        }
+        if (object.has("elapsedMillis")) {
+            return gson.fromJson(object, TimeoutResponseMessage.class);
+        }
+        return gson.fromJson(object, NormalResponseMessage.class);
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import java.util.List;
+
+/**
+ A subclass of ResponseMessage that holds the transaction data of the Blocks from a position on.
+ */
+public class BodiesResponseMessage extends ResponseMessage {
+    // Stores the data of the Blocks in chain order, null for Blocks that were pruned
+    List<String> bodies;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number of the response
+     @param bodies the data of the Blocks, empty if the chain has no Blocks from that position on
+     */
+    BodiesResponseMessage (int choice, List<String> bodies) {
+        super.choice = choice;
+        this.bodies = bodies;
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import java.util.Map;
+
+/**
+ A subclass of ResponseMessage that holds the hit and miss counts of the server's response caches.
+ */
+public class CacheStatsResponseMessage extends ResponseMessage {
+    // Stores the counts of each cache, keyed by the operation it answers
+    Map<String, ResponseCache.Stats> caches;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number of the response
+     @param caches the counts of each cache
+     */
+    CacheStatsResponseMessage (int choice, Map<String, ResponseCache.Stats> caches) {
+        super.choice = choice;
+        this.caches = caches;
+    }
+}
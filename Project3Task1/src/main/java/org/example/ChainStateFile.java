@@ -0,0 +1,345 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file keeps the state of the server on disk, in the directory blockchain.server.stateDir, so that a
+ * restarted server picks up where it stopped instead of mining a new genesis Block:
+ *   chain.jsonl       one line per Block, the JSON of the Block, or {"header":...} for a pruned Block
+ *   calibration.json  the hashes per second measured on this computer, see BlockChain.computeHashesPerSecond()
+ *   checkpoints.json  the index and hash of the Blocks verification left checkpoints at, see BlockChain
+ * A background thread checks the chain every blockchain.server.stateSaveMillis milliseconds. New Blocks are
+ * appended to chain.jsonl; when Blocks already saved changed (repair, corruption, a rollback by a peer or the
+ * leader) the file is written again beside the old one and moved over it, so it is never half written.
+ * Restoring appends every saved Block as it was saved with BlockChain.restoreBlock(), which rebuilds the
+ * indexes from one hash per Block instead of mining it again. A line that cannot be read, such as the last one
+ * of a server that stopped while appending it, is dropped together with the lines after it. The checkpoints
+ * are restored after the Blocks, up to the first one whose Block no longer has the recorded hash, so the first verification
+ * after a restart does not check the whole chain again. checkpoints.json is written whole whenever they change,
+ * after the Blocks they refer to.
+ */
+
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class ChainStateFile {
+
+    // Stores how often in milliseconds the background thread saves the changes to the chain
+    static final long SAVE_MILLIS = Long.getLong("blockchain.server.stateSaveMillis", 200);
+    // Reads and writes Blocks in the format of the chain view
+    private static final Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss.SSS").create();
+    // Stores the paths of the saved chain, of the saved calibration and of the saved checkpoints
+    private final Path chainPath;
+    private final Path calibrationPath;
+    private final Path checkpointsPath;
+    // Stores the chain that is saved
+    private final BlockChain blockChain;
+    // Stores how many Blocks chain.jsonl holds that match the chain; only used by the saving thread after start()
+    private int savedSize;
+    // Stores true if chain.jsonl holds lines that were not restored, so it has to be written again
+    private boolean rewrite;
+    // Stores the version of the chain that was last saved
+    private long savedVersion = -1;
+    // Stores the checkpoints checkpoints.json holds, or null if it has to be written
+    private SortedMap<Integer, Hash256> savedCheckpoints;
+    // Stores the saving thread, or null until start()
+    private Thread saver;
+
+    /**
+     The calibration saved in calibration.json.
+     */
+    static class Calibration {
+        int hashesPerSecond;
+        // Stores what the measurement depends on, so that another computer measures again
+        String machine;
+        long measuredMillis;
+    }
+
+    /**
+     A checkpoint saved in checkpoints.json.
+     */
+    static class Checkpoint {
+        int index;
+        Hash256 hash;
+    }
+
+    /**
+     Constructor for the state kept in a directory, which is created if needed.
+     @param directory the directory of chain.jsonl and calibration.json
+     @param blockChain the chain to restore and save
+     @throws IOException if the directory cannot be created
+     */
+    public ChainStateFile(Path directory, BlockChain blockChain) throws IOException {
+        Files.createDirectories(directory);
+        this.chainPath = directory.resolve("chain.jsonl");
+        this.calibrationPath = directory.resolve("calibration.json");
+        this.checkpointsPath = directory.resolve("checkpoints.json");
+        this.blockChain = blockChain;
+    }
+
+    /**
+     Returns what a calibration depends on: the processors, the architecture and the Java runtime.
+     @return a description of this computer
+     */
+    static String machine() {
+        return Runtime.getRuntime().availableProcessors() + " processors, " + System.getProperty("os.arch")
+                + ", " + System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version");
+    }
+
+    /**
+     Reads the hashes per second saved by an earlier run on this computer.
+     @return the hashes per second, or 0 if none were saved, or they were measured elsewhere
+     */
+    public int readCalibration() {
+        try {
+            if (!Files.exists(calibrationPath)) {
+                return 0;
+            }
+            Calibration calibration = gson.fromJson(Files.readString(calibrationPath), Calibration.class);
+            return calibration != null && machine().equals(calibration.machine) ? calibration.hashesPerSecond : 0;
+        } catch (IOException | JsonParseException e) {
+            ServerLog.warn("Could not read " + calibrationPath + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     Saves the hashes per second measured on this computer, for the next run.
+     @param hashesPerSecond the hashes per second
+     */
+    public void writeCalibration(int hashesPerSecond) {
+        Calibration calibration = new Calibration();
+        calibration.hashesPerSecond = hashesPerSecond;
+        calibration.machine = machine();
+        calibration.measuredMillis = System.currentTimeMillis();
+        try {
+            replace(calibrationPath, List.of(gson.toJson(calibration)));
+        } catch (IOException e) {
+            ServerLog.warn("Could not write " + calibrationPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     Appends the saved Blocks to the chain, which must be empty, then restores the saved checkpoints that
+     still match them. The caller holds the chain.
+     @return the number of Blocks restored
+     @throws IOException if chain.jsonl cannot be read
+     */
+    public int restore() throws IOException {
+        if (!Files.exists(chainPath)) {
+            return 0;
+        }
+        List<String> lines = Files.readAllLines(chainPath, StandardCharsets.UTF_8);
+        int restored = 0;
+        try {
+            for (String line : lines) {
+                JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+                Block block = json.has("header")
+                        ? gson.fromJson(json.get("header"), BlockHeader.class).toBlock(null)
+                        : gson.fromJson(json, Block.class);
+                blockChain.restoreBlock(block);
+                restored++;
+            }
+        } catch (RuntimeException e) {
+            ServerLog.warn("Restored " + restored + " of " + lines.size() + " saved blocks, block " + restored
+                    + " is damaged: " + e.getMessage());
+        }
+        // The Blocks restored are saved already
+        blockChain.takeFirstChange();
+        savedSize = restored;
+        rewrite = restored < lines.size();
+        restoreCheckpoints();
+        return restored;
+    }
+
+    /**
+     Records the checkpoints saved in checkpoints.json, in order, up to the first one whose Block no longer has
+     the recorded hash: a checkpoint vouches for all the Blocks before it, so once one of them changed the later
+     checkpoints are dropped too.
+     */
+    private void restoreCheckpoints() {
+        if (!Files.exists(checkpointsPath)) {
+            savedCheckpoints = new TreeMap<>();
+            return;
+        }
+        try {
+            Checkpoint[] checkpoints = gson.fromJson(Files.readString(checkpointsPath), Checkpoint[].class);
+            int kept = 0;
+            Arrays.sort(checkpoints, Comparator.comparingInt(checkpoint -> checkpoint.index));
+            for (Checkpoint checkpoint : checkpoints) {
+                if (checkpoint.hash == null || !blockChain.restoreCheckpoint(checkpoint.index, checkpoint.hash)) {
+                    break;
+                }
+                kept++;
+            }
+            int dropped = checkpoints.length - kept;
+            if (dropped > 0) {
+                ServerLog.warn("Dropped " + dropped + " of " + checkpoints.length + " saved checkpoints, from block "
+                        + checkpoints[kept].index + " on, which is gone or changed");
+            }
+            // Write the file again without the checkpoints that were dropped
+            savedCheckpoints = dropped > 0 ? null : new TreeMap<>(blockChain.getCheckpoints());
+        } catch (IOException | RuntimeException e) {
+            ServerLog.warn("Could not read " + checkpointsPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     Starts saving the changes to the chain in the background, and once more when the server stops.
+     */
+    public void start() {
+        saver = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(SAVE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                save();
+            }
+        }, "chain-state");
+        saver.setDaemon(true);
+        saver.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "chain-state-close"));
+    }
+
+    /**
+     Stops the background thread and saves the last changes. Calling it again does nothing more.
+     */
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            thread = saver;
+            saver = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+
+    /**
+     Saves the changes to the chain since the last save: appends the new Blocks, or writes the whole file if
+     Blocks that were saved changed, then the checkpoints if verification changed them. Only the lines and the
+     checkpoints are collected while holding the chain.
+     */
+    synchronized void save() {
+        List<String> lines = new ArrayList<>();
+        boolean changed;
+        boolean whole = false;
+        int size = savedSize;
+        SortedMap<Integer, Hash256> checkpoints;
+        synchronized (blockChain) {
+            changed = blockChain.getVersion() != savedVersion || rewrite;
+            // Verification adds checkpoints without changing the version of the chain
+            checkpoints = blockChain.getCheckpoints().equals(savedCheckpoints)
+                    ? null : new TreeMap<>(blockChain.getCheckpoints());
+            if (changed) {
+                savedVersion = blockChain.getVersion();
+                int first = blockChain.takeFirstChange();
+                size = blockChain.getChainSize();
+                whole = rewrite || first < savedSize;
+                BlockStore store = blockChain.getBlockStore();
+                for (int i = whole ? 0 : savedSize; i < size; i++) {
+                    lines.add(store.isPruned(i) ? "{\"header\":" + gson.toJson(blockChain.getHeader(i)) + "}" : store.getJson(i));
+                }
+            }
+        }
+        if (changed) {
+            try {
+                if (whole) {
+                    replace(chainPath, lines);
+                } else if (!lines.isEmpty()) {
+                    write(chainPath, lines, true);
+                }
+                savedSize = size;
+                rewrite = false;
+            } catch (IOException e) {
+                // Try again with the whole chain next time, and the checkpoints after it
+                rewrite = true;
+                ServerLog.warn("Could not save the chain to " + chainPath + ": " + e.getMessage());
+                return;
+            }
+        }
+        if (checkpoints != null) {
+            saveCheckpoints(checkpoints);
+        }
+    }
+
+    /**
+     Writes the checkpoints to checkpoints.json.
+     @param checkpoints the hashes of the checkpointed Blocks, keyed by position
+     */
+    private void saveCheckpoints(SortedMap<Integer, Hash256> checkpoints) {
+        List<Checkpoint> saved = new ArrayList<>(checkpoints.size());
+        for (Map.Entry<Integer, Hash256> entry : checkpoints.entrySet()) {
+            Checkpoint checkpoint = new Checkpoint();
+            checkpoint.index = entry.getKey();
+            checkpoint.hash = entry.getValue();
+            saved.add(checkpoint);
+        }
+        try {
+            replace(checkpointsPath, List.of(gson.toJson(saved)));
+            savedCheckpoints = checkpoints;
+        } catch (IOException e) {
+            ServerLog.warn("Could not save the checkpoints to " + checkpointsPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     Writes lines to a file, and waits until they are on the disk.
+     @param path the file
+     @param lines the lines
+     @param append true to add the lines at the end of the file, false to replace what it holds
+     @throws IOException if the file cannot be written
+     */
+    private static void write(Path path, List<String> lines, boolean append) throws IOException {
+        try (FileOutputStream file = new FileOutputStream(path.toFile(), append);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+            writer.flush();
+            file.getFD().sync();
+        }
+    }
+
+    /**
+     Replaces a file with lines: writes them beside it, then moves them over it in one step.
+     @param path the file
+     @param lines the lines
+     @throws IOException if the file cannot be written
+     */
+    private static void replace(Path path, List<String> lines) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        write(temporary, lines, false);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This class watches the connection of a client while the server mines for it. A client sends one
+ * request line and then only waits for the response, so reaching the end of its input stream means it
+ * has gone away. The watcher then cancels the mining, so no CPU is spent on a Block nobody waits for.
+ * On a kept-alive connection the client may send its next request as soon as it has the response, while
+ * the watcher is still reading; the watcher then pushes the byte it read back and stops, and the server
+ * waits with awaitStopped() before it reads the next request.
+ */
+
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+public class ClientDisconnectWatcher implements AutoCloseable {
+
+    // Stores how long a single read waits before the watcher checks whether it should stop
+    private static final int POLL_MILLIS = 50;
+
+    // Stores whether the watcher has to stop
+    private volatile boolean closed;
+    // Stores the thread reading the connection, or null if the connection could not be read
+    private Thread thread;
+
+    /**
+     Starts watching the given connection. If the connection cannot be read, the cancellation is cancelled at once.
+     @param clientSocket the connection of the client the server is mining for
+     @param cancellation cancelled when the client disconnects
+     */
+    public ClientDisconnectWatcher(Socket clientSocket, MiningCancellation cancellation) {
+        this(clientSocket, null, cancellation);
+    }
+
+    /**
+     Starts watching the given connection through the stream the server reads its requests from, so that
+     the start of a next request can be pushed back onto it.
+     @param clientSocket the connection of the client the server is mining for
+     @param requests the stream of the client's requests, or null to read the socket directly
+     @param cancellation cancelled when the client disconnects
+     */
+    public ClientDisconnectWatcher(Socket clientSocket, PushbackInputStream requests, MiningCancellation cancellation) {
+        int previousTimeout;
+        InputStream input;
+        try {
+            previousTimeout = clientSocket.getSoTimeout();
+            clientSocket.setSoTimeout(POLL_MILLIS);
+            input = requests != null ? requests : clientSocket.getInputStream();
+        } catch (IOException e) {
+            cancellation.cancel("client connection failed: " + e.getMessage());
+            return;
+        }
+        thread = new Thread(() -> {
+            try {
+                watch(input, cancellation);
+            } finally {
+                // The watcher is the only reader while it runs, so it puts the timeout back itself
+                try {
+                    clientSocket.setSoTimeout(previousTimeout);
+                } catch (IOException e) {
+                    // The connection is gone, nothing to restore
+                }
+            }
+        }, "disconnect-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Reads from the client until it disconnects or the watcher is closed
+    private void watch(InputStream input, MiningCancellation cancellation) {
+        while (!closed) {
+            try {
+                int next = input.read();
+                if (next < 0) {
+                    cancellation.cancel("client disconnected");
+                    return;
+                }
+                if (input instanceof PushbackInputStream) {
+                    // The client is there and already sent its next request; leave it for the server
+                    ((PushbackInputStream) input).unread(next);
+                    return;
+                }
+                // Anything else the client sends while waiting is not part of the protocol and is dropped
+            } catch (SocketTimeoutException e) {
+                // Still connected, check again
+            } catch (IOException e) {
+                cancellation.cancel("client connection failed: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     Stops watching. The watching thread notices within POLL_MILLIS and then ends on its own,
+     so the response does not have to wait for it.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     Stops watching and waits, at most POLL_MILLIS, until the watching thread no longer reads the connection.
+     */
+    public void awaitStopped() {
+        close();
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
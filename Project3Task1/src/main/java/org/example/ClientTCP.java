@@ -3,17 +3,28 @@
  * Andrew ID: sbadhan
  * Last Modified: 03/17/2023
  * This class represents a TCP client that interacts with a server to perform various blockchain operations.
+ * Run with the argument load, followed by its options, it generates load on the server instead, see LoadGenerator.
+ * The server is looked for on this computer at the port blockchain.server.port, 6789 by default. Large
+ * responses are asked for compressed with the encodings in blockchain.client.acceptEncoding, see ResponseCodec.
 */
 package org.example;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import java.net.*;
 import java.io.*;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Scanner;
 
 public class ClientTCP {
 
     public static void main(String[] args) throws IOException {
+        // Measure the server instead of showing the menu
+        if (args.length > 0 && args[0].equals("load")) {
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Scanner s = new Scanner(System.in);
         BufferedReader typed = new BufferedReader(new InputStreamReader(System.in));
 
@@ -26,7 +37,11 @@ public class ClientTCP {
                     "3. View the blockchain.\n" +
                     "4. Corrupt the chain.\n" +
                     "5. Hide the corruption by repairing the chain.\n" +
-                    "6. Exit");
+                    "6. Exit\n" +
+                    "7. Find a block by its hash.\n" +
+                    "8. Find the blocks holding a transaction.\n" +
+                    "9. View the blocks mined in a time range.\n" +
+                    "10. Verify every block of the blockchain, ignoring checkpoints.");
 
             int userInput = s.nextInt();
             // request message to be sent to the server
@@ -54,6 +69,22 @@ public class ClientTCP {
                     System.out.println("Expected total hashes required for the whole chain: " + String.format("%.6f", (double) responseMessage.totalHashes));
                     System.out.println("Nonce for most recent block: " + responseMessage.recentNonce);
                     System.out.println("Chain hash: " + responseMessage.chainHash);
+                    if (responseMessage.replication != null) {
+                        ReplicationFollower.ReplicationStatus replication = responseMessage.replication;
+                        System.out.println("Follower of " + replication.leader + ": " + replication.blocksReplicated
+                                + " blocks copied, lag last " + replication.lastLagMillis + " ms, average "
+                                + String.format("%.1f", replication.averageLagMillis) + " ms, longest "
+                                + replication.maxLagMillis + " ms, " + replication.resyncs + " resyncs"
+                                + (replication.error != null ? ", last error: " + replication.error : ""));
+                    }
+                    if (responseMessage.waitTimes != null) {
+                        for (Map.Entry<String, MiningScheduler.WaitTimes> entry : responseMessage.waitTimes.entrySet()) {
+                            MiningScheduler.WaitTimes times = entry.getValue();
+                            System.out.println("Wait to mine for " + entry.getKey() + ": " + times.jobs + " blocks, average "
+                                    + String.format("%.1f", times.averageWaitMillis) + " ms, longest "
+                                    + times.maxWaitMillis + " ms, " + times.waiting + " waiting");
+                        }
+                    }
                 }; break;
 
                 // If user requested to add a transaction to the blockchain
@@ -71,8 +102,9 @@ public class ClientTCP {
                 }; break;
 
                 // If user requested to verify the blockchain
-                case 2:{
-                    message = new NormalRequestMessage(2);
+                case 2:
+                case 10:{
+                    message = new VerifyRequestMessage(2, userInput == 10);
                     // Request the blockchain operation from server and store the value of response
                     String response = blockchain_operations(message.toString());
                     // Parse JSON response from server into VerificationResponseMessage
@@ -125,6 +157,51 @@ public class ClientTCP {
                     NormalResponseMessage responseMessage = gson.fromJson(response, NormalResponseMessage.class);
                     System.out.println(responseMessage.response);
                 }; break;
+                // If user requested to find a block or a transaction
+                case 7:
+                case 8:{
+                    if (userInput == 7) {
+                        System.out.println("Enter block hash");
+                        message = new LookupRequestMessage(7, typed.readLine(), null, null);
+                    } else {
+                        System.out.println("Enter transaction, or its ID prefixed with id:");
+                        data = typed.readLine();
+                        message = data.startsWith("id:") ? new LookupRequestMessage(8, null, null, data.substring(3))
+                                : new LookupRequestMessage(8, null, data, null);
+                    }
+                    // Request the blockchain operation from server and store the value of response
+                    String response = blockchain_operations(message.toString());
+                    // Parse JSON response from server into LookupResponseMessage, with the date format of the Blocks
+                    LookupResponseMessage responseMessage = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss.SSS")
+                            .create().fromJson(response, LookupResponseMessage.class);
+                    System.out.println(responseMessage.response);
+                    for (Block block : responseMessage.blocks) {
+                        System.out.println(block);
+                    }
+                }; break;
+                // If user requested the blocks of a time range, read them one page at a time
+                case 9:{
+                    System.out.println("Enter start time (yyyy-mm-dd hh:mm:ss)");
+                    long from = java.sql.Timestamp.valueOf(typed.readLine().trim()).getTime();
+                    System.out.println("Enter end time (yyyy-mm-dd hh:mm:ss)");
+                    long to = java.sql.Timestamp.valueOf(typed.readLine().trim()).getTime();
+                    Gson blockGson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss.SSS").create();
+                    int offset = 0;
+                    while (offset >= 0) {
+                        message = new RangeRequestMessage(9, from, to, offset, 0);
+                        // Request the blockchain operation from server and store the value of response
+                        String response = blockchain_operations(message.toString());
+                        // Parse JSON response from server into RangeResponseMessage
+                        RangeResponseMessage responseMessage = blockGson.fromJson(response, RangeResponseMessage.class);
+                        for (Block block : responseMessage.blocks) {
+                            System.out.println(block);
+                        }
+                        offset = responseMessage.nextOffset;
+                        if (offset < 0) {
+                            System.out.println(responseMessage.totalBlocks + " block(s) in the range");
+                        }
+                    }
+                }; break;
                 // If user requested to exit
                 case 6:{
                     // Halt client execution
@@ -144,20 +221,18 @@ public class ClientTCP {
  */
 
  public static String blockchain_operations(String message) {
-        // Define a TCP style Socket
-        Socket clientSocket = null;
         // Stores the JSON response from the server
         String response = "";
-        try {
-            clientSocket = new Socket("localhost", 6789);
+        // Define a TCP style Socket, closed once the response was read
+        try (Socket clientSocket = new Socket("localhost", ServerTCP.PORT)) {
             BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
             PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(clientSocket.getOutputStream())));
             // Request to the server with the JSON request message
-            out.println(message);
+            out.println(ResponseCodec.withAcceptEncoding(message, ResponseCodec.ACCEPT_ENCODING));
             // Flush to server socket
             out.flush();
             // Store the JSON response from the server
-            response = in.readLine(); // read a line of data from the stream
+            response = ResponseCodec.decode(in.readLine()); // read a line of data from the stream, decompressed
         }
         // Handle general I/O exceptions
         catch (IOException e) {
@@ -0,0 +1,29 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ This class represents a Corrupt Request message,
+ which is used to request the corruption of a specific Block in the blockchain.
+ It extends the RequestMessage class, and has additional instance variables
+ for the blockID of the Block to be corrupted and the new (corrupted) transaction data to be stored on that block.
+ */
+public class CorruptRequestMessage extends RequestMessage {
+    int blockID;
+    String data;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the request message.
+     @param blockID The blockID of the Block to be corrupted.
+     @param data The new (corrupted) transaction data to be stored on the blockID.
+     */
+    CorruptRequestMessage (int operation, int blockID, String data) {
+        super.operation = operation;
+        this.blockID = blockID;
+        this.data = data;
+    }
+}
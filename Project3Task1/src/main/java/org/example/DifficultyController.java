@@ -0,0 +1,82 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This class picks the work of each new Block so that mining takes about a configured time.
+ * Each extra hex zero of difficulty multiplies the expected work by 16, so instead the controller
+ * gives every Block a numeric target (see Block.setExpectedHashes) worth hashrate x target time
+ * hashes. The hashrate is measured over the most recently mined Blocks, starting from the
+ * BlockChain's hashes per second until there are measurements.
+ */
+
+package org.example;
+
+import java.util.ArrayDeque;
+
+public class DifficultyController {
+
+    // Stores how many of the most recent Blocks the hashrate is measured over
+    private static final int WINDOW = 10;
+
+    // Stores the time in milliseconds mining a Block should take
+    private final long targetBlockMillis;
+    // Stores the hashrate assumed before any Block was measured, in hashes per millisecond
+    private final double initialHashesPerMilli;
+    // Stores the number of hashes tried and the milliseconds taken for each recent Block
+    private final ArrayDeque<long[]> samples = new ArrayDeque<>();
+    // Stores the sums over the samples
+    private long sampledHashes;
+    private long sampledMillis;
+
+    /**
+     Creates a controller aiming for the given block time.
+     @param targetBlockMillis the time in milliseconds mining a Block should take
+     @param hashesPerSecond the hashrate to assume until Blocks have been measured
+     */
+    public DifficultyController(long targetBlockMillis, int hashesPerSecond) {
+        this.targetBlockMillis = targetBlockMillis;
+        this.initialHashesPerMilli = Math.max(hashesPerSecond, 1) / 1000.0;
+    }
+
+    /**
+     Sets the target and difficulty of a new Block so that mining it takes about the target block time.
+     @param block the Block about to be mined
+     */
+    public synchronized void applyTo(Block block) {
+        block.setExpectedHashes(getHashesPerMilli() * targetBlockMillis);
+    }
+
+    /**
+     Records how long a Block took to mine. Mining starts at nonce 0, so nonce + 1 hashes were tried.
+     @param block the Block that was mined
+     @param millis how long mining took in milliseconds
+     */
+    public synchronized void record(Block block, long millis) {
+        long[] sample = {block.getNonce().longValue() + 1, Math.max(millis, 1)};
+        samples.addLast(sample);
+        sampledHashes += sample[0];
+        sampledMillis += sample[1];
+        if (samples.size() > WINDOW) {
+            long[] oldest = samples.removeFirst();
+            sampledHashes -= oldest[0];
+            sampledMillis -= oldest[1];
+        }
+    }
+
+    /***
+     * Function to get the measured hashrate
+     * @return Hashes per millisecond over the recent Blocks, or the initial hashrate if none were measured
+     */
+    public synchronized double getHashesPerMilli() {
+        return samples.isEmpty() ? initialHashesPerMilli : (double) sampledHashes / sampledMillis;
+    }
+
+    /***
+     * Function to get the target block time
+     * @return The time in milliseconds mining a Block should take
+     */
+    public long getTargetBlockMillis() {
+        return targetBlockMillis;
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import java.util.List;
+
+/**
+ A subclass of ResponseMessage that holds the headers of the Blocks from a position on.
+ */
+public class HeadersResponseMessage extends ResponseMessage {
+    // Stores the headers, in chain order
+    List<BlockHeader> headers;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number of the response
+     @param headers the headers, empty if the chain has no Blocks from that position on
+     */
+    HeadersResponseMessage (int choice, List<BlockHeader> headers) {
+        super.choice = choice;
+        this.headers = headers;
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements a load generator for ServerTCP, run with "ClientTCP load" followed by options of
+ * the form name=value:
+ *   clients=4       the number of simulated clients sending requests at the same time
+ *   seconds=10      how long to send requests for
+ *   rate=0          the total requests per second to aim for, or 0 to send the next request as soon as the
+ *                   reply to the last one came
+ *   mix=status:40,add1:10,add2:5,verify:25,view:20
+ *                   the operations to send with their weights; addN adds a Block of difficulty N
+ *   csv=file        where to write the results as CSV, or - for the standard output
+ *
+ * Each client sends one request per connection like ClientTCP. With a rate, the requests are sent on a fixed
+ * schedule and latency is measured from the time a request was due, not the time it was sent, so a server
+ * that falls behind shows up in the latency instead of only slowing down the load. The results give the
+ * throughput and the p50, p95, p99 and p99.9 latency of each operation. Requests that got no reply count as
+ * errors and are left out of the latencies. So are add requests the server rejected (RejectedResponseMessage)
+ * or stopped mining (TimeoutResponseMessage): they are counted in columns of their own, since their quick
+ * answers would otherwise lower the latencies and raise the throughput of an overloaded server.
+ */
+
+package org.example;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class LoadGenerator {
+
+    // Stores the number of simulated clients
+    private final int clients;
+    // Stores how long to send requests for, in nanoseconds
+    private final long durationNanos;
+    // Stores the total requests per second to aim for, or 0 for as many as the server answers
+    private final double rate;
+    // Stores the operations to send and their weights, in the order they were given
+    private final LinkedHashMap<String, Integer> mix;
+    // Stores the latencies of each operation
+    private final Map<String, Recorder> recorders = new HashMap<>();
+
+    /**
+     The latencies of one operation and the number of requests that failed, were rejected or timed out.
+     */
+    static class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private int rejected;
+        private int timedOut;
+
+        synchronized void record(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        synchronized void recordError() {
+            errors++;
+        }
+
+        synchronized void recordRejected() {
+            rejected++;
+        }
+
+        synchronized void recordTimedOut() {
+            timedOut++;
+        }
+
+        /**
+         Returns the latencies recorded so far in increasing order.
+         @return the sorted latencies in nanoseconds
+         */
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        synchronized int getErrors() {
+            return errors;
+        }
+
+        synchronized int getRejected() {
+            return rejected;
+        }
+
+        synchronized int getTimedOut() {
+            return timedOut;
+        }
+    }
+
+    /**
+     Creates a load generator.
+     @param clients the number of simulated clients
+     @param seconds how long to send requests for
+     @param rate the total requests per second to aim for, or 0 for as many as the server answers
+     @param mix the operations to send and their weights
+     */
+    public LoadGenerator(int clients, double seconds, double rate, LinkedHashMap<String, Integer> mix) {
+        if (clients < 1 || seconds <= 0 || rate < 0 || mix.isEmpty()) {
+            throw new IllegalArgumentException("Needs at least one client, a duration, a rate >= 0 and an operation");
+        }
+        this.clients = clients;
+        this.durationNanos = (long) (seconds * 1e9);
+        this.rate = rate;
+        this.mix = mix;
+        for (String operation : mix.keySet()) {
+            toRequest(operation, 0);
+            recorders.put(operation, new Recorder());
+        }
+    }
+
+    /**
+     Parses the options, runs the load and prints the results.
+     @param args options of the form name=value, see the description of this file
+     @throws IOException if the CSV file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Options have the form name=value: " + arg);
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        LoadGenerator generator = new LoadGenerator(
+                Integer.parseInt(options.getOrDefault("clients", "4")),
+                Double.parseDouble(options.getOrDefault("seconds", "10")),
+                Double.parseDouble(options.getOrDefault("rate", "0")),
+                parseMix(options.getOrDefault("mix", "status:40,add1:10,add2:5,verify:25,view:20")));
+        double seconds = generator.run();
+
+        String csv = options.get("csv");
+        if (csv == null || csv.equals("-")) {
+            generator.writeCsv(new OutputStreamWriter(System.out), seconds);
+        } else {
+            try (FileWriter file = new FileWriter(csv)) {
+                generator.writeCsv(file, seconds);
+            }
+            System.out.println("Wrote the results to " + csv);
+        }
+    }
+
+    /**
+     Parses an operation mix such as status:40,add1:10.
+     @param mix the operations and their weights, separated by commas
+     @return the weights keyed by operation, in the order given
+     */
+    static LinkedHashMap<String, Integer> parseMix(String mix) {
+        LinkedHashMap<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            if (weight > 0) {
+                weights.put(parts[0], weight);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     Builds the request for an operation of the mix.
+     @param operation status, addN, verify or view
+     @param number a number that makes the transaction of an add request unique
+     @return the JSON request
+     @throws IllegalArgumentException if the operation is not known
+     */
+    static String toRequest(String operation, long number) {
+        if (operation.startsWith("add")) {
+            int difficulty = Integer.parseInt(operation.substring(3));
+            return new AddRequestMessage(1, difficulty, "load " + number).toString();
+        }
+        switch (operation) {
+            case "status": return new NormalRequestMessage(0).toString();
+            case "verify": return new VerifyRequestMessage(2, false).toString();
+            case "view": return new NormalRequestMessage(3).toString();
+            default: throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    /**
+     Runs the clients until the duration is over and waits for their last requests.
+     @return the time the load took in seconds
+     */
+    public double run() {
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            Thread thread = new Thread(() -> runClient(client, start), "load-client-" + c);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    /**
+     Sends the requests of one client.
+     @param client the number of the client
+     @param start the time the load started, from System.nanoTime()
+     */
+    private void runClient(int client, long start) {
+        String[] operations = mix.keySet().toArray(new String[0]);
+        int[] cumulative = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulative[i] = total;
+        }
+        // With a rate the clients take turns, each sending every clients / rate seconds
+        long interval = rate > 0 ? (long) (clients * 1e9 / rate) : 0;
+        long due = start + (rate > 0 ? (long) (client * 1e9 / rate) : 0);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (long k = 0; due - start < durationNanos; k++) {
+            if (interval > 0) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            } else {
+                due = System.nanoTime();
+            }
+            int pick = random.nextInt(total);
+            int i = 0;
+            while (cumulative[i] <= pick) {
+                i++;
+            }
+            String response = ClientTCP.blockchain_operations(toRequest(operations[i], client * 1_000_000_000L + k));
+            long end = System.nanoTime();
+            Recorder recorder = recorders.get(operations[i]);
+            if (response == null || response.isEmpty()) {
+                recorder.recordError();
+            } else if (!operations[i].startsWith("add")) {
+                recorder.record(end - due);
+            } else {
+                // An add request is only served if the server mined its Block
+                ResponseMessage answer = BlockchainClient.parseMiningResponse(response);
+                if (answer instanceof RejectedResponseMessage) {
+                    recorder.recordRejected();
+                } else if (answer instanceof TimeoutResponseMessage) {
+                    recorder.recordTimedOut();
+                } else {
+                    recorder.record(end - due);
+                }
+            }
+            due += interval;
+        }
+    }
+
+    /**
+     Writes one CSV line per operation and one for all operations together.
+     @param writer where to write the CSV
+     @param seconds the time the load took in seconds
+     */
+    public void writeCsv(Writer writer, double seconds) {
+        PrintWriter out = new PrintWriter(writer);
+        out.println("operation,requests,errors,rejected,timed_out,throughput_per_sec,mean_ms,p50_ms,p95_ms,p99_ms,"
+                + "p999_ms,max_ms");
+        long[] all = new long[0];
+        int allErrors = 0;
+        int allRejected = 0;
+        int allTimedOut = 0;
+        for (String operation : mix.keySet()) {
+            Recorder recorder = recorders.get(operation);
+            long[] latencies = recorder.sorted();
+            writeLine(out, operation, latencies, recorder.getErrors(), recorder.getRejected(), recorder.getTimedOut(),
+                    seconds);
+            all = merge(all, latencies);
+            allErrors += recorder.getErrors();
+            allRejected += recorder.getRejected();
+            allTimedOut += recorder.getTimedOut();
+        }
+        writeLine(out, "all", all, allErrors, allRejected, allTimedOut, seconds);
+        out.flush();
+    }
+
+    /**
+     Writes the CSV line of an operation.
+     @param out where to write the line
+     @param operation the name of the operation
+     @param latencies the sorted latencies of its served requests in nanoseconds
+     @param errors the number of its requests that got no reply
+     @param rejected the number of its requests the server rejected
+     @param timedOut the number of its requests the server stopped mining
+     @param seconds the time the load took in seconds
+     */
+    private static void writeLine(PrintWriter out, String operation, long[] latencies, int errors, int rejected,
+                                  int timedOut, double seconds) {
+        double mean = latencies.length == 0 ? 0 : Arrays.stream(latencies).average().getAsDouble();
+        out.println(String.format("%s,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", operation, latencies.length,
+                errors, rejected, timedOut, latencies.length / seconds, mean / 1e6, percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.95) / 1e6, percentile(latencies, 0.99) / 1e6,
+                percentile(latencies, 0.999) / 1e6,
+                (latencies.length == 0 ? 0 : latencies[latencies.length - 1]) / 1e6));
+    }
+
+    /**
+     Returns a percentile of sorted values by the nearest-rank method.
+     @param sorted the values in increasing order
+     @param fraction the percentile as a fraction, for instance 0.99
+     @return the smallest value that at least that fraction of the values is at or below, 0 if there are none
+     */
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     Merges two sorted arrays.
+     @param a the first array
+     @param b the second array
+     @return the values of both in increasing order
+     */
+    private static long[] merge(long[] a, long[] b) {
+        long[] merged = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            merged[k] = j >= b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+        }
+        return merged;
+    }
+}
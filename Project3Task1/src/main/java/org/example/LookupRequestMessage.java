@@ -0,0 +1,33 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ This class represents a request to look up a Block by its hash, or the Blocks holding a transaction.
+ For a transaction lookup either the transaction data or its ID (the SHA-256 hash of the data) is given.
+ */
+public class LookupRequestMessage extends RequestMessage {
+    // Stores the hash of the Block to find
+    String hash;
+    // Stores the data of the transaction to find
+    String transactionData;
+    // Stores the ID of the transaction to find, used when no transaction data is given
+    String transactionId;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the request message
+     @param hash The hash of the Block to find, or null
+     @param transactionData The data of the transaction to find, or null
+     @param transactionId The ID of the transaction to find, or null
+     */
+    LookupRequestMessage (int operation, String hash, String transactionData, String transactionId) {
+        super.operation = operation;
+        this.hash = hash;
+        this.transactionData = transactionData;
+        this.transactionId = transactionId;
+    }
+}
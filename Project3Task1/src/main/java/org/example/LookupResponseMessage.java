@@ -0,0 +1,29 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import java.util.List;
+
+/**
+ A subclass of ResponseMessage that holds the Blocks found by a lookup.
+ */
+public class LookupResponseMessage extends ResponseMessage {
+    String response;
+    // Stores the Blocks that were found, in chain order
+    List<Block> blocks;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number of the response
+     @param response a description of the result
+     @param blocks the Blocks that were found, empty if there were none
+     */
+    LookupResponseMessage (int choice, String response, List<Block> blocks) {
+        super.choice = choice;
+        this.response = response;
+        this.blocks = blocks;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This class decides which waiting add request mines next. Only one Block is mined at a time, because the
+ * previous hash of a Block is only known once the Block before it is on the chain. Instead of serving the
+ * requests in arrival order, the scheduler picks the one with the least expected work (its expected hashes
+ * divided by the hashrate), so one difficulty-7 Block does not hold up a queue of cheap ones. To make sure
+ * expensive Blocks still get their turn, every millisecond a request waits takes agingRate milliseconds off
+ * its estimate. The scheduler also keeps the wait times of each class of request for the status response.
+ */
+
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class MiningScheduler {
+
+    // Stores how long in milliseconds a waiting request sleeps before it checks its cancellation again
+    private static final long POLL_MILLIS = 50;
+
+    // Stores how many milliseconds of estimated work are forgiven per millisecond of waiting
+    private final double agingRate;
+    // Stores the requests waiting for their turn, in arrival order
+    private final ArrayList<Job> waiting = new ArrayList<>();
+    // Stores the wait times of the requests that got their turn, per class
+    private final Map<String, WaitTimes> waitTimes = new TreeMap<>();
+    // Stores whether a request is mining right now
+    private boolean busy;
+    // Stores a number that grows whenever the wait times or the waiting requests change
+    private volatile long version;
+
+    /**
+     A request waiting for its turn to mine.
+     */
+    static class Job {
+        // Stores the class the wait time of the request is reported under
+        final String jobClass;
+        // Stores the estimated mining time of the request in milliseconds
+        final double estimateMillis;
+        // Stores when the request started waiting
+        final long enqueuedMillis;
+
+        Job(String jobClass, double estimateMillis, long enqueuedMillis) {
+            this.jobClass = jobClass;
+            this.estimateMillis = estimateMillis;
+            this.enqueuedMillis = enqueuedMillis;
+        }
+    }
+
+    /**
+     The wait times of one class of request, as reported in the status response.
+     */
+    static class WaitTimes {
+        // Stores the number of requests of this class that got their turn
+        long jobs;
+        // Stores the number of requests of this class that are waiting right now
+        int waiting;
+        // Stores the average and longest time in milliseconds a request of this class waited
+        double averageWaitMillis;
+        long maxWaitMillis;
+        // Stores the sum of the waits, to compute the average from
+        transient long totalWaitMillis;
+    }
+
+    /**
+     Creates a scheduler.
+     @param agingRate the milliseconds of estimated work forgiven per millisecond of waiting; 0 disables aging
+     */
+    public MiningScheduler(double agingRate) {
+        this.agingRate = agingRate;
+    }
+
+    /**
+     Waits until the request may mine. The request must call release() when it is done with the chain.
+     @param jobClass the class the wait time of the request is reported under
+     @param estimateMillis the estimated mining time of the request in milliseconds
+     @param cancellation stops waiting when it is cancelled
+     @return how long the request waited in milliseconds
+     @throws MiningCancelledException if the request was cancelled before its turn; release() must not be called then
+     */
+    public synchronized long acquire(String jobClass, double estimateMillis, MiningCancellation cancellation) {
+        Job job = new Job(jobClass, estimateMillis, System.currentTimeMillis());
+        waiting.add(job);
+        version++;
+        try {
+            while (busy || next() != job) {
+                cancellation.throwIfCancelled();
+                wait(POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            waiting.remove(job);
+            version++;
+            notifyAll();
+            throw new MiningCancelledException("interrupted while waiting to mine", false);
+        } catch (MiningCancelledException e) {
+            // Another request may be next now
+            waiting.remove(job);
+            version++;
+            notifyAll();
+            throw e;
+        }
+        waiting.remove(job);
+        busy = true;
+        long waited = System.currentTimeMillis() - job.enqueuedMillis;
+        WaitTimes times = waitTimes.computeIfAbsent(jobClass, k -> new WaitTimes());
+        times.jobs++;
+        times.totalWaitMillis += waited;
+        times.maxWaitMillis = Math.max(times.maxWaitMillis, waited);
+        version++;
+        return waited;
+    }
+
+    /**
+     Gives the turn to the next waiting request.
+     */
+    public synchronized void release() {
+        busy = false;
+        notifyAll();
+    }
+
+    /**
+     Picks the waiting request with the lowest aged estimate; requests that tie are served in arrival order.
+     @return the request that mines next
+     */
+    private Job next() {
+        long now = System.currentTimeMillis();
+        Job best = null;
+        double bestScore = 0;
+        for (Job job : waiting) {
+            double score = job.estimateMillis - agingRate * (now - job.enqueuedMillis);
+            if (best == null || score < bestScore) {
+                best = job;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /***
+     * Function to get the version of the wait times, read without waiting for the scheduler
+     * @return A number that changes whenever getWaitTimes() would return something different
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /***
+     * Function to get the wait times of each class of request
+     * @return A copy of the wait times, keyed by class
+     */
+    public synchronized Map<String, WaitTimes> getWaitTimes() {
+        Map<String, WaitTimes> copy = new TreeMap<>();
+        for (Map.Entry<String, WaitTimes> entry : waitTimes.entrySet()) {
+            WaitTimes times = new WaitTimes();
+            times.jobs = entry.getValue().jobs;
+            times.totalWaitMillis = entry.getValue().totalWaitMillis;
+            times.maxWaitMillis = entry.getValue().maxWaitMillis;
+            times.averageWaitMillis = times.jobs == 0 ? 0 : (double) times.totalWaitMillis / times.jobs;
+            copy.put(entry.getKey(), times);
+        }
+        for (Job job : waiting) {
+            copy.computeIfAbsent(job.jobClass, k -> new WaitTimes()).waiting++;
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ A subclass of RequestMessage that represents a normal request message.
+ */
+public class NormalRequestMessage extends RequestMessage {
+    /**
+     Constructs a NormalRequestMessage object with the given operation.
+     @param operation an integer value representing the operation of the request message
+     */
+    NormalRequestMessage (int operation) {
+        super.operation = operation;
+    }
+
+}
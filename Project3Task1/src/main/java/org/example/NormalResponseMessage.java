@@ -0,0 +1,24 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ This class represents a normal response message from the server.
+ It extends the ResponseMessage class and adds a response String variable.
+ */
+public class NormalResponseMessage extends ResponseMessage {
+    String response;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number that the user selected
+     @param response the response from the server
+     */
+    NormalResponseMessage (int choice, String response) {
+        super.choice = choice;
+        this.response = response;
+    }
+}
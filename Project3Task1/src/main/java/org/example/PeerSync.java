@@ -0,0 +1,420 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements chain sync between peers. A ServerTCP started with the system property
+ * blockchain.server.peers=host:port,... mines its own Blocks and announces the tip of its chain to its
+ * peers after every change (operation 15). A peer whose chain is lighter than an announced or polled tip
+ * (operation 12) syncs with the announcing peer:
+ *
+ *   1. It finds the fork point, the first Block the two chains disagree on, by binary search over single
+ *      headers (operation 13), after checking the common case that the peer only extends its chain.
+ *   2. It fetches the headers from the fork point on in batches, several at once, and verifies each batch
+ *      on its own thread as it arrives: every header's hash has to meet its difficulty and link to the one
+ *      before. The batches are then linked to each other.
+ *   3. It fetches the data of those Blocks the same way (operation 14) and checks each body against the
+ *      payload digest of its header, see BlockHeader.toBlock().
+ *   4. If the peer's chain is still heavier than its own, it rolls its chain back to the fork point and
+ *      appends the peer's Blocks, then announces its new tip in turn.
+ *
+ * The heaviest chain is the one with the most expected hashes, see BlockChain.getTotalExpectedHashes(),
+ * rather than the highest summed difficulty: one Block of difficulty 5 takes more work than five of
+ * difficulty 1. Ties keep the chain the node already has. Peers are also polled every
+ * blockchain.sync.intervalMillis, in case an announcement was lost.
+ */
+
+package org.example;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class PeerSync implements AutoCloseable {
+
+    // Stores the most headers and bodies fetched with one request
+    static final int HEADER_BATCH = 500;
+    static final int BODY_BATCH = 100;
+    // Stores how often the peers are polled in milliseconds
+    static final long SYNC_INTERVAL_MILLIS = Long.getLong("blockchain.sync.intervalMillis", 5000);
+
+    // Stores the address other peers reach this node at, or null if it does not announce
+    private final String address;
+    // Stores a client for each known peer, keyed by address
+    private final Map<String, BlockchainClient> peers = new ConcurrentHashMap<>();
+    // Stores the chain to sync, locked while it changes
+    private final BlockChain blockChain;
+    // Runs after Blocks were adopted, holding the chain
+    private final Runnable chainChanged;
+    // Stores how many batches are fetched from a peer at once
+    private final int parallelBatches;
+    // Runs the syncs one at a time
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "peer-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     The verified headers of one batch, with the hash of its last Block.
+     */
+    private static class HeaderBatch {
+        final List<BlockHeader> headers;
+        final Hash256 lastHash;
+
+        HeaderBatch(List<BlockHeader> headers, Hash256 lastHash) {
+            this.headers = headers;
+            this.lastHash = lastHash;
+        }
+    }
+
+    /**
+     Creates the sync of a node.
+     @param address the address other peers reach this node at as host:port, or null to never announce
+     @param peers the addresses of the peers as host:port
+     @param blockChain the chain of the node
+     @param chainChanged runs after Blocks were adopted, holding the chain
+     @param parallelBatches how many batches to fetch from a peer at once
+     */
+    public PeerSync(String address, Collection<String> peers, BlockChain blockChain, Runnable chainChanged,
+                    int parallelBatches) {
+        this.address = address;
+        this.blockChain = blockChain;
+        this.chainChanged = chainChanged;
+        this.parallelBatches = Math.max(parallelBatches, 1);
+        for (String peer : peers) {
+            addPeer(peer);
+        }
+    }
+
+    /**
+     Syncs with the peers at once, then polls them every SYNC_INTERVAL_MILLIS, all on the sync thread. The
+     first sync does not hold up the caller: peers started together each wait for the other to accept
+     connections, so it only starts once this node serves requests.
+     */
+    public void start() {
+        scheduler.execute(this::syncAll);
+        scheduler.scheduleWithFixedDelay(this::syncAll, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     Syncs with every known peer in turn, so the node ends up with the heaviest of their chains.
+     */
+    public void syncAll() {
+        for (String peer : peers.keySet()) {
+            syncQuietly(peer);
+        }
+    }
+
+    /**
+     Handles the announcement of a peer: remembers the peer, and syncs with it if its chain is heavier.
+     @param peer the address of the peer as host:port
+     @param totalWork the expected hashes of the peer's chain
+     */
+    public void onAnnounce(String peer, double totalWork) {
+        if (peer == null || peer.equals(address)) {
+            return;
+        }
+        addPeer(peer);
+        double ownWork;
+        synchronized (blockChain) {
+            ownWork = blockChain.getTotalExpectedHashes();
+        }
+        if (totalWork > ownWork) {
+            scheduler.execute(() -> syncQuietly(peer));
+        }
+    }
+
+    /**
+     Tells every peer about the tip of this node's chain, without waiting for them.
+     */
+    public void announce() {
+        if (address == null) {
+            return;
+        }
+        TipResponseMessage tip;
+        synchronized (blockChain) {
+            tip = new TipResponseMessage(12, blockChain.getChainSize(), blockChain.getChainHash(),
+                    blockChain.getTotalExpectedHashes(), blockChain.getTotalDifficulty());
+        }
+        for (BlockchainClient peer : peers.values()) {
+            // A peer that is down hears about the tip when it polls
+            peer.announce(address, tip).exceptionally(e -> null);
+        }
+    }
+
+    /**
+     Syncs with a peer, logging instead of throwing when it fails.
+     @param peer the address of the peer
+     */
+    private void syncQuietly(String peer) {
+        try {
+            sync(peer);
+        } catch (RuntimeException e) {
+            ServerLog.warn(() -> "Sync with " + peer + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     Adopts the chain of a peer if it is heavier than this node's, see the description of this file.
+     @param peer the address of the peer as host:port
+     @return the number of Blocks adopted, 0 if the chain of this node was kept
+     @throws IllegalArgumentException if the peer sent Blocks that do not verify
+     @throws java.util.concurrent.CompletionException if a request to the peer failed
+     */
+    public int sync(String peer) {
+        BlockchainClient client = addPeer(peer);
+        TipResponseMessage tip = client.getTip().join();
+        int ownSize;
+        double ownWork;
+        synchronized (blockChain) {
+            ownSize = blockChain.getChainSize();
+            ownWork = blockChain.getTotalExpectedHashes();
+        }
+        if (tip.totalWork <= ownWork) {
+            return 0;
+        }
+
+        int fork = findForkPoint(client, ownSize, tip.chainSize);
+        List<BlockHeader> headers = new ArrayList<>();
+        Hash256 lastHash = null;
+        for (HeaderBatch batch : fetch(fork, tip.chainSize, HEADER_BATCH, (start, count) -> client.getHeaders(start, count)
+                .thenApplyAsync(response -> verifyHeaders(response.headers, start, count)))) {
+            if (lastHash != null && !lastHash.equals(batch.headers.get(0).getPreviousHash())) {
+                throw new IllegalArgumentException("Block " + batch.headers.get(0).getIndex()
+                        + " of " + peer + " does not link to the block before it");
+            }
+            headers.addAll(batch.headers);
+            lastHash = batch.lastHash;
+        }
+        if (headers.isEmpty()) {
+            return 0;
+        }
+        // Count the work of the verified headers rather than trusting the announced tip
+        double work = 0;
+        for (BlockHeader header : headers) {
+            work += header.getExpectedHashes();
+        }
+        synchronized (blockChain) {
+            for (int i = 0; i < fork; i++) {
+                work += Block.expectedHashes(blockChain.getBlockStore().getDifficulty(i),
+                        blockChain.getBlockStore().getTarget(i));
+            }
+        }
+        if (work <= ownWork) {
+            return 0;
+        }
+
+        List<Block> blocks = new ArrayList<>(headers.size());
+        for (List<Block> batch : fetch(fork, fork + headers.size(), BODY_BATCH, (start, count) -> client.getBodies(start, count)
+                .thenApplyAsync(response -> toBlocks(headers.subList(start - fork, start - fork + count), response.bodies)))) {
+            blocks.addAll(batch);
+        }
+
+        int rolledBack;
+        synchronized (blockChain) {
+            // The chain may have changed while the Blocks were fetched; the next sync tries again then
+            BlockStore store = blockChain.getBlockStore();
+            Hash256 link = fork == 0 ? Hash256.EMPTY : fork <= store.size() ? store.computeHash(fork - 1) : null;
+            if (blockChain.getTotalExpectedHashes() >= work || !headers.get(0).getPreviousHash().equals(link)) {
+                return 0;
+            }
+            rolledBack = blockChain.getChainSize() - fork;
+            blockChain.truncate(fork);
+            for (Block block : blocks) {
+                blockChain.appendBlock(block);
+            }
+            chainChanged.run();
+        }
+        ServerLog.info(() -> "Adopted " + blocks.size() + " blocks from " + peer + " after rolling back "
+                + rolledBack + " to the fork point at block " + fork);
+        announce();
+        return blocks.size();
+    }
+
+    /**
+     Finds the first Block this node's chain and the peer's chain disagree on.
+     @param client the client of the peer
+     @param ownSize the size of this node's chain
+     @param peerSize the size of the peer's chain
+     @return the position of the first Block that differs, or the size of the shorter chain
+     */
+    private int findForkPoint(BlockchainClient client, int ownSize, int peerSize) {
+        int shorter = Math.min(ownSize, peerSize);
+        // Most of the time the peer only has Blocks added after ours
+        if (shorter == 0 || matches(client, shorter - 1)) {
+            return shorter;
+        }
+        // Blocks before the fork point match and the ones after it do not, since every Block links to the last
+        int low = 0;
+        int high = shorter - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (matches(client, middle)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     Checks whether a Block of the peer's chain is the same as the one of this node's chain.
+     @param client the client of the peer
+     @param i the position of the Block
+     @return true if both chains have a Block with the same hash there
+     */
+    private boolean matches(BlockchainClient client, int i) {
+        List<BlockHeader> headers = client.getHeaders(i, 1).join().headers;
+        if (headers.isEmpty()) {
+            return false;
+        }
+        Hash256 hash = headers.get(0).computeHash();
+        synchronized (blockChain) {
+            return i < blockChain.getChainSize() && blockChain.getBlockStore().computeHash(i).equals(hash);
+        }
+    }
+
+    /**
+     Fetches a range of Blocks in batches, with up to parallelBatches requests in flight.
+     @param from the position of the first Block
+     @param to the position after the last Block
+     @param batchSize the most Blocks per request
+     @param request sends the request for the batch starting at a position with a number of Blocks
+     @return the results of the batches, in chain order
+     */
+    private <T> List<T> fetch(int from, int to, int batchSize, BatchRequest<T> request) {
+        List<T> results = new ArrayList<>();
+        Deque<CompletableFuture<T>> inFlight = new ArrayDeque<>();
+        for (int start = from; start < to; start += batchSize) {
+            if (inFlight.size() >= parallelBatches) {
+                results.add(inFlight.removeFirst().join());
+            }
+            inFlight.addLast(request.send(start, Math.min(batchSize, to - start)));
+        }
+        while (!inFlight.isEmpty()) {
+            results.add(inFlight.removeFirst().join());
+        }
+        return results;
+    }
+
+    /**
+     Sends the request for one batch.
+     */
+    private interface BatchRequest<T> {
+        CompletableFuture<T> send(int start, int count);
+    }
+
+    /**
+     Verifies a batch of headers: their positions, their proof of work and the links between them.
+     @param headers the headers sent by the peer
+     @param start the position of the first header asked for
+     @param count the number of headers asked for
+     @return the verified batch
+     @throws IllegalArgumentException if a header does not verify
+     */
+    static HeaderBatch verifyHeaders(List<BlockHeader> headers, int start, int count) {
+        if (headers.size() != count) {
+            throw new IllegalArgumentException("Asked for " + count + " headers from block " + start
+                    + ", got " + headers.size());
+        }
+        Hash256 hash = null;
+        for (int j = 0; j < count; j++) {
+            BlockHeader header = headers.get(j);
+            if (header.getIndex() != start + j) {
+                throw new IllegalArgumentException("Expected the header of block " + (start + j)
+                        + ", got block " + header.getIndex());
+            }
+            if (hash != null && !hash.equals(header.getPreviousHash())) {
+                throw new IllegalArgumentException("Block " + header.getIndex() + " does not link to the block before it");
+            }
+            hash = header.computeHash();
+            if (!header.meetsTarget(hash)) {
+                throw new IllegalArgumentException("Block " + header.getIndex() + " has a hash that does not meet its difficulty");
+            }
+        }
+        return new HeaderBatch(headers, hash);
+    }
+
+    /**
+     Builds the Blocks of a batch from their verified headers and their data.
+     @param headers the headers of the Blocks
+     @param bodies the data of the Blocks, null for pruned ones
+     @return the Blocks
+     @throws IllegalArgumentException if the peer sent a different number of bodies or a body does not match
+     */
+    static List<Block> toBlocks(List<BlockHeader> headers, List<String> bodies) {
+        if (bodies.size() != headers.size()) {
+            throw new IllegalArgumentException("Asked for " + headers.size() + " bodies, got " + bodies.size());
+        }
+        List<Block> blocks = new ArrayList<>(headers.size());
+        for (int j = 0; j < headers.size(); j++) {
+            blocks.add(headers.get(j).toBlock(bodies.get(j)));
+        }
+        return blocks;
+    }
+
+    /**
+     Returns the client of a peer, creating it the first time.
+     @param peer the address of the peer as host:port
+     @return the client of the peer
+     */
+    private BlockchainClient addPeer(String peer) {
+        return peers.computeIfAbsent(peer, key -> {
+            int colon = key.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("A peer has to be given as host:port: " + key);
+            }
+            return new BlockchainClient(key.substring(0, colon), Integer.parseInt(key.substring(colon + 1)),
+                    parallelBatches, 30000);
+        });
+    }
+
+    /**
+     Stops polling and closes the connections to the peers.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (BlockchainClient client : peers.values()) {
+            client.close();
+        }
+    }
+
+    /**
+     Measures how fast a new node with an empty chain catches up with a running peer, for each given number
+     of batches in flight.
+     @param args the address of the peer as host:port, then the numbers of parallel batches to try, 1 and 4
+     by default
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: PeerSync host:port [parallelBatches...]");
+            return;
+        }
+        String[] parallel = args.length > 1 ? java.util.Arrays.copyOfRange(args, 1, args.length) : new String[]{"1", "4"};
+        for (String batches : parallel) {
+            BlockChain chain = new BlockChain(new SequentialMiningEngine(), BlockStores.getConfigured());
+            try (PeerSync sync = new PeerSync(null, List.of(args[0]), chain, () -> { }, Integer.parseInt(batches))) {
+                long start = System.nanoTime();
+                int blocks = sync.sync(args[0]);
+                long millis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+                System.out.println(batches + " batch(es) in flight: caught up " + blocks + " blocks in " + millis
+                        + " ms (" + blocks * 1000L / millis + " blocks/s), chain verification: " + chain.isChainValid());
+            } finally {
+                chain.getBlockStore().close();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ This class represents a request for the Blocks mined in a time range, one page at a time.
+ */
+public class RangeRequestMessage extends RequestMessage {
+    // Stores the start and end of the range in milliseconds since the epoch, both inclusive
+    long fromMillis;
+    long toMillis;
+    // Stores how many Blocks of the range to skip, and the most Blocks to return
+    int offset;
+    int limit;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the request message
+     @param fromMillis The start of the range in milliseconds since the epoch
+     @param toMillis The end of the range in milliseconds since the epoch
+     @param offset How many Blocks of the range to skip
+     @param limit The most Blocks to return; the server caps it
+     */
+    RangeRequestMessage (int operation, long fromMillis, long toMillis, int offset, int limit) {
+        super.operation = operation;
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.offset = offset;
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import java.util.List;
+
+/**
+ A subclass of ResponseMessage that holds one page of the Blocks in a time range.
+ */
+public class RangeResponseMessage extends ResponseMessage {
+    // Stores the Blocks of this page, in chain order
+    List<Block> blocks;
+    // Stores how many Blocks the whole range holds
+    int totalBlocks;
+    // Stores the offset of the next page, or -1 if this is the last page
+    int nextOffset;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number of the response
+     @param blocks the Blocks of this page
+     @param totalBlocks how many Blocks the whole range holds
+     @param nextOffset the offset to request the next page with, or -1 if there is none
+     */
+    RangeResponseMessage (int choice, List<Block> blocks, int totalBlocks, int nextOffset) {
+        super.choice = choice;
+        this.blocks = blocks;
+        this.totalBlocks = totalBlocks;
+        this.nextOffset = nextOffset;
+    }
+}
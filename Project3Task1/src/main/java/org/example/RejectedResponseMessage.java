@@ -0,0 +1,45 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ A subclass of ResponseMessage sent when the server refuses an add request before mining,
+ because the Block would cost more than the server is willing to spend.
+ */
+public class RejectedResponseMessage extends ResponseMessage {
+    String response;
+    // Stores why the request was rejected
+    String reason;
+    // Stores the estimated mining time of the request in milliseconds
+    long estimatedMillis;
+    // Stores the CPU budget of a single request in milliseconds
+    long budgetMillis;
+    // Stores the expected hashes the server had outstanding when it rejected the request
+    long outstandingHashes;
+    // Stores how long the client should wait before trying again in milliseconds, or -1 if retrying will not help
+    long retryAfterMillis;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number that the user selected
+     @param response the response from the server
+     @param reason why the request was rejected
+     @param estimatedMillis the estimated mining time of the request
+     @param budgetMillis the CPU budget of a single request
+     @param outstandingHashes the expected hashes the server had outstanding
+     @param retryAfterMillis how long to wait before trying again, or -1 if the request will never fit
+     */
+    RejectedResponseMessage(int choice, String response, String reason, long estimatedMillis, long budgetMillis,
+                            long outstandingHashes, long retryAfterMillis) {
+        super.choice = choice;
+        this.response = response;
+        this.reason = reason;
+        this.estimatedMillis = estimatedMillis;
+        this.budgetMillis = budgetMillis;
+        this.outstandingHashes = outstandingHashes;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+}
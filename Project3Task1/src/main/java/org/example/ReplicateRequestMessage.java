@@ -0,0 +1,29 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ This class represents a request of a follower for the Blocks of the leader from a position on. If the leader
+ has no such Blocks yet, it waits up to waitMillis for one to be added before it answers.
+ */
+public class ReplicateRequestMessage extends RequestMessage {
+    // Stores the position of the first Block the follower does not have
+    int fromIndex;
+    // Stores how long the leader may wait for a new Block in milliseconds
+    long waitMillis;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the request message
+     @param fromIndex The position of the first Block to send
+     @param waitMillis How long the leader may wait for a new Block in milliseconds
+     */
+    ReplicateRequestMessage (int operation, int fromIndex, long waitMillis) {
+        super.operation = operation;
+        this.fromIndex = fromIndex;
+        this.waitMillis = waitMillis;
+    }
+}
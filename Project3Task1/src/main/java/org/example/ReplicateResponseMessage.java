@@ -0,0 +1,40 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import java.util.List;
+
+/**
+ A subclass of ResponseMessage that holds the Blocks a follower asked for, with the time the leader added each.
+ */
+public class ReplicateResponseMessage extends ResponseMessage {
+    // Stores the Blocks from the requested position on, in chain order
+    List<Block> blocks;
+    // Stores when each Block was added to the leader's chain, in milliseconds since the epoch
+    List<Long> appendedMillis;
+    // Stores the hash the leader's chain has for the Block before the requested position, null if the
+    // leader has fewer Blocks than the request assumed
+    Hash256 previousHash;
+    // Stores the size of the leader's chain
+    int chainSize;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number of the response
+     @param blocks the Blocks from the requested position on
+     @param appendedMillis when each Block was added to the leader's chain
+     @param previousHash the hash of the Block before the requested position, or null
+     @param chainSize the size of the leader's chain
+     */
+    ReplicateResponseMessage (int choice, List<Block> blocks, List<Long> appendedMillis, Hash256 previousHash,
+                              int chainSize) {
+        super.choice = choice;
+        this.blocks = blocks;
+        this.appendedMillis = appendedMillis;
+        this.previousHash = previousHash;
+        this.chainSize = chainSize;
+    }
+}
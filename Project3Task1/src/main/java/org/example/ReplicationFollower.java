@@ -0,0 +1,287 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements the follower side of chain replication. A ServerTCP started with the system
+ * property blockchain.server.leader=host:port does not mine; it streams the Blocks of the leader over one
+ * kept-alive connection with operation 11, which the leader answers as soon as it has a Block the follower
+ * does not, or after a second with none. Each Block is checked with a single hash, see
+ * BlockChain.appendBlock(), and the follower then serves reads from its own copy of the chain.
+ *
+ * The leader sends the hash its chain has for the Block before the ones it sends. When that is not the
+ * follower's chain hash, the leader repaired its chain or was restarted, and the follower copies the chain
+ * again from the start. A Block that fails verification, such as a corrupted one, is not taken; the follower
+ * retries until the leader repairs it. Blocks the leader pruned cannot be replicated.
+ *
+ * Replication lag is the time from the leader adding a Block to the follower having it. It is reported in
+ * the status of the follower, and measured end to end by main(). The two clocks are only comparable when
+ * the leader and the follower run on the same computer.
+ */
+
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+
+public class ReplicationFollower implements Runnable {
+
+    // Stores how long the leader may hold a request for new Blocks in milliseconds
+    static final long POLL_WAIT_MILLIS = 1000;
+    // Stores how long to wait before reconnecting after the leader failed or sent a bad Block
+    static final long RETRY_MILLIS = 1000;
+    // Reads the Blocks, whose timestamps use this format
+    private static final Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss.SSS").create();
+
+    // Stores the address of the leader
+    private final String host;
+    private final int port;
+    // Stores the chain to copy the leader's Blocks into, locked while it changes
+    private final BlockChain blockChain;
+    // Stores when the leader added each Block of the chain
+    private final List<Long> appendedMillis;
+    // Stores the replication statistics, guarded by this
+    private final ReplicationStatus status = new ReplicationStatus();
+    // Stores whether the follower has to stop
+    private volatile boolean stopped;
+    // Stores a number that grows whenever the statistics change
+    private volatile long version;
+
+    /**
+     How far behind its leader a follower is, as reported in the status response.
+     */
+    static class ReplicationStatus {
+        // Stores the address of the leader
+        String leader;
+        // Stores the number of Blocks copied from the leader
+        long blocksReplicated;
+        // Stores the lag of the last Block, and the average and longest lag, in milliseconds
+        long lastLagMillis;
+        double averageLagMillis;
+        long maxLagMillis;
+        // Stores how many times the chain was copied again from the start
+        int resyncs;
+        // Stores why the last request to the leader failed, or null if it did not
+        String error;
+        // Stores the sum of the lags, to compute the average from
+        transient long totalLagMillis;
+    }
+
+    /**
+     Creates a follower.
+     @param leader the address of the leader as host:port
+     @param blockChain the empty chain to copy the leader's Blocks into
+     @param appendedMillis the list to record when the leader added each Block in
+     */
+    public ReplicationFollower(String leader, BlockChain blockChain, List<Long> appendedMillis) {
+        int colon = leader.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("The leader has to be given as host:port: " + leader);
+        }
+        this.host = leader.substring(0, colon);
+        this.port = Integer.parseInt(leader.substring(colon + 1));
+        this.blockChain = blockChain;
+        this.appendedMillis = appendedMillis;
+        status.leader = leader;
+    }
+
+    /**
+     Starts copying the leader's Blocks on a daemon thread.
+     */
+    public void start() {
+        Thread thread = new Thread(this, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     Stops copying after the current request.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     Copies the leader's Blocks until stopped, reconnecting when the connection fails.
+     */
+    @Override
+    public void run() {
+        while (!stopped) {
+            try (Socket socket = new Socket(host, port)) {
+                // The leader holds a request for up to POLL_WAIT_MILLIS, and needs time to send the Blocks
+                socket.setSoTimeout((int) POLL_WAIT_MILLIS + 10000);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream())));
+                while (!stopped) {
+                    poll(in, out);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                setError(e.getMessage());
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     Asks the leader for the Blocks after the last one of the chain and appends them.
+     @param in the connection to the leader, to read the response from
+     @param out the connection to the leader, to send the request on
+     @throws IOException if the leader could not be reached
+     @throws IllegalArgumentException if the leader sent a Block that does not verify
+     */
+    private void poll(BufferedReader in, PrintWriter out) throws IOException {
+        int from;
+        Hash256 expected;
+        // Only this thread changes the chain, so it stays as read here until the response is applied
+        synchronized (blockChain) {
+            from = blockChain.getChainSize();
+            expected = blockChain.getChainHash();
+        }
+        out.println(ResponseCodec.withAcceptEncoding(new ReplicateRequestMessage(11, from, POLL_WAIT_MILLIS).toString(),
+                ResponseCodec.ACCEPT_ENCODING));
+        out.flush();
+        String json = ResponseCodec.decode(in.readLine());
+        if (json == null) {
+            throw new IOException("The leader closed the connection");
+        }
+        ReplicateResponseMessage response = gson.fromJson(json, ReplicateResponseMessage.class);
+
+        synchronized (blockChain) {
+            if (!expected.equals(response.previousHash)) {
+                // The leader's chain no longer continues ours, copy it again
+                blockChain.truncate(0);
+                appendedMillis.clear();
+                synchronized (this) {
+                    status.resyncs++;
+                    version++;
+                }
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (int j = 0; j < response.blocks.size(); j++) {
+                Block block = response.blocks.get(j);
+                if (block.isPruned()) {
+                    throw new IllegalArgumentException("Block " + block.getIndex()
+                            + " was pruned on the leader and cannot be replicated");
+                }
+                blockChain.appendBlock(block);
+                appendedMillis.add(response.appendedMillis.get(j));
+                recordLag(now - response.appendedMillis.get(j));
+            }
+            // Wake the followers of this follower
+            blockChain.notifyAll();
+        }
+        setError(null);
+    }
+
+    /**
+     Records why the last request to the leader failed.
+     @param error the reason, or null if it did not fail
+     */
+    private synchronized void setError(String error) {
+        if (!java.util.Objects.equals(status.error, error)) {
+            status.error = error;
+            version++;
+        }
+    }
+
+    /**
+     Adds the lag of one Block to the statistics.
+     @param lagMillis the time from the leader adding the Block to this follower having it
+     */
+    private synchronized void recordLag(long lagMillis) {
+        status.blocksReplicated++;
+        status.lastLagMillis = lagMillis;
+        status.totalLagMillis += lagMillis;
+        status.maxLagMillis = Math.max(status.maxLagMillis, lagMillis);
+        status.averageLagMillis = (double) status.totalLagMillis / status.blocksReplicated;
+        version++;
+    }
+
+    /***
+     * Function to get the version of the replication statistics, read without waiting for the follower
+     * @return A number that changes whenever getStatus() would return something different
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /***
+     * Function to get the replication statistics
+     * @return A copy of the statistics
+     */
+    public synchronized ReplicationStatus getStatus() {
+        ReplicationStatus copy = new ReplicationStatus();
+        copy.leader = status.leader;
+        copy.blocksReplicated = status.blocksReplicated;
+        copy.lastLagMillis = status.lastLagMillis;
+        copy.averageLagMillis = status.averageLagMillis;
+        copy.maxLagMillis = status.maxLagMillis;
+        copy.resyncs = status.resyncs;
+        copy.error = status.error;
+        return copy;
+    }
+
+    /**
+     Measures replication lag end to end against servers running on this computer: adds Blocks at the leader
+     one at a time and, after each, polls the status of every follower until it has the Block. Nothing else
+     may add Blocks to the leader while it runs. Prints the
+     p50, p99 and longest lag of each follower, and the lag the follower reports itself.
+     @param args the number of Blocks to add, the port of the leader, and the ports of the followers
+     */
+    public static void main(String[] args) {
+        if (args.length < 3 || Integer.parseInt(args[0]) < 1) {
+            System.out.println("Usage: ReplicationFollower blocks leaderPort followerPort...");
+            return;
+        }
+        int blocks = Integer.parseInt(args[0]);
+        int followers = args.length - 2;
+        long[][] lags = new long[followers][blocks];
+        BlockchainClient leader = new BlockchainClient("localhost", Integer.parseInt(args[1]), 1, 30000);
+        BlockchainClient[] clients = new BlockchainClient[followers];
+        for (int f = 0; f < followers; f++) {
+            clients[f] = new BlockchainClient("localhost", Integer.parseInt(args[f + 2]), 1, 30000);
+        }
+        try {
+            int start = leader.getStatus().join().chainSize;
+            for (int k = 0; k < blocks; k++) {
+                leader.addTransaction(1, "replicated " + k).join();
+                long added = System.nanoTime();
+                int size = start + k + 1;
+                for (int f = 0; f < followers; f++) {
+                    while (clients[f].getStatus().join().chainSize < size) {
+                        Thread.onSpinWait();
+                    }
+                    lags[f][k] = System.nanoTime() - added;
+                }
+            }
+            for (int f = 0; f < followers; f++) {
+                long[] sorted = lags[f].clone();
+                Arrays.sort(sorted);
+                ReplicationStatus reported = clients[f].getStatus().join().replication;
+                System.out.println(String.format("follower on port %s: p50 %.2f ms, p99 %.2f ms, max %.2f ms over %d blocks"
+                                + "; it reports an average lag of %.2f ms", args[f + 2],
+                        LoadGenerator.percentile(sorted, 0.50) / 1e6, LoadGenerator.percentile(sorted, 0.99) / 1e6,
+                        sorted[blocks - 1] / 1e6, blocks, reported == null ? Double.NaN : reported.averageLagMillis));
+            }
+        } finally {
+            leader.close();
+            for (BlockchainClient client : clients) {
+                client.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file defines the Java Flight Recorder event of the server handling one request, split into its
+ * phases: parsing the JSON request, executing the operation, serializing the JSON response (compressing it
+ * included) and writing it to the socket. Execution is what is left of the duration after the other phases,
+ * so it includes waiting for the chain and mining. The phases are only timed while a recording has the
+ * event enabled. See blockchain.jfc in Project3Task1 for settings to record it with.
+ */
+
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("org.example.Request")
+@Label("Server Request")
+@Category({"Blockchain", "Server"})
+@Description("One request handled by ServerTCP, from reading its line to writing the response")
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    int operation;
+
+    @Label("Parse Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long parseNanos;
+
+    @Label("Execute Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executeNanos;
+
+    @Label("Serialize Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long serializeNanos;
+
+    @Label("Write Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long writeNanos;
+
+    @Label("Request Size")
+    @DataAmount(DataAmount.BYTES)
+    long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount(DataAmount.BYTES)
+    @Description("The characters sent, after compression")
+    long responseBytes;
+
+    // Stores when the request was read, while the event is enabled
+    transient long startNanos;
+}
@@ -0,0 +1,96 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This class keeps the last JSON response of an operation together with the version of the state it was
+ * built from, see BlockChain.getVersion(). As long as the version stays the same, the server sends the kept
+ * response instead of reading the chain and serializing it again, so clients that keep polling the status or
+ * the whole chain cost a lookup. The version and the response are published together in one volatile field,
+ * so a hit is served with peek() without waiting for the chain or for this cache. The hits and misses are
+ * counted, and reported by operation 16.
+ */
+
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class ResponseCache {
+
+    // Stores the kept response with the version it was built from, or null if there is none yet
+    private volatile Entry entry;
+    // Stores how many requests were answered with the kept response, and how many had to build it
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     A response and the version it was built from, never changed once published.
+     */
+    private static class Entry {
+        // Stores the version, compared with equals()
+        final Object version;
+        final String response;
+
+        Entry(Object version, String response) {
+            this.version = version;
+            this.response = response;
+        }
+    }
+
+    /**
+     The hit and miss counts of a cache, as reported by operation 16.
+     */
+    static class Stats {
+        long hits;
+        long misses;
+        double hitRate;
+    }
+
+    /**
+     Returns the response for a version, building it only if the kept one is for another version. The caller
+     makes sure the state cannot change between reading its version and building the response, usually by
+     holding the chain.
+     @param version the version of the state the response is built from
+     @param build builds the response from the current state
+     @return the response for that version
+     */
+    public synchronized String get(Object version, Supplier<String> build) {
+        String response = peek(version);
+        if (response != null) {
+            return response;
+        }
+        misses.incrementAndGet();
+        response = build.get();
+        entry = new Entry(version, response);
+        return response;
+    }
+
+    /**
+     Returns the kept response if it was built from a version, without waiting for anything. The caller reads
+     the version without holding the state, and calls get() while holding it if this returns null.
+     @param version the current version of the state
+     @return the kept response, or null if there is none for that version
+     */
+    public String peek(Object version) {
+        Entry kept = entry;
+        if (kept == null || !version.equals(kept.version)) {
+            return null;
+        }
+        hits.incrementAndGet();
+        return kept.response;
+    }
+
+    /***
+     * Function to get the hit and miss counts of this cache
+     * @return A copy of the counts
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.hits = hits.get();
+        stats.misses = misses.get();
+        long requests = stats.hits + stats.misses;
+        stats.hitRate = requests == 0 ? 0 : (double) stats.hits / requests;
+        return stats;
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements the compression of large responses. A client that can read compressed responses
+ * lists the encodings it accepts in the acceptEncoding field of its request, in order of preference:
+ *   gzip          the gzip format
+ *   deflate       the zlib format
+ *   deflate-dict  the zlib format with a preset dictionary of block JSON, see DICTIONARY
+ * The server picks the first one it supports and, if the JSON response is at least
+ * blockchain.server.compressMinBytes long, sends it as a one-line envelope instead:
+ *   {"encoding":"gzip","length":123456,"payload":"<base64 of the compressed JSON>"}
+ * Requests without acceptEncoding, and responses that are shorter, stay plain JSON, so old clients and
+ * servers keep working with new ones. The main method measures the bytes sent and the time each encoding
+ * takes for the whole chain of a running server.
+ */
+
+package org.example;
+
+import com.google.gson.Gson;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+public class ResponseCodec {
+
+    // Stores the names of the encodings
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+    static final String DEFLATE_DICT = "deflate-dict";
+    // Stores the encodings clients accept unless blockchain.client.acceptEncoding says otherwise
+    static final String ACCEPT_ENCODING = System.getProperty("blockchain.client.acceptEncoding",
+            DEFLATE_DICT + "," + DEFLATE + "," + GZIP);
+    // Stores the length in characters from which the server compresses a response
+    static final int MIN_BYTES = Integer.getInteger("blockchain.server.compressMinBytes", 16384);
+    // Stores the deflate level from 1, fastest, to 9, smallest; -1 for the default of 6
+    static final int LEVEL = Integer.getInteger("blockchain.server.compressLevel", Deflater.DEFAULT_COMPRESSION);
+    // Stores the preset dictionary: the field names and the shape of the JSON of Blocks and common responses,
+    // with the parts deflate finds most often, such as the start of a Block, at the end
+    static final byte[] DICTIONARY = ("{\"chainSize\":,\"chainHash\":\"\",\"totalHashes\":,\"totalDifficulty\":"
+            + ",\"recentNonce\":,\"difficulty\":,\"hashesPerSecond\":,\"response\":\"Total execution time"
+            + " milliseconds\",\"choice\":0123456789ABCDEF,\"target\":\"00000000000000000000000000000000\""
+            + ",\"pruned\":true},\"blocks\":[{\"blkChain\":[{\"index\":0,\"timeStamp\":\"2026-10-18 00:00:00.000\""
+            + ",\"data\":\"Genesis\",\"previousHash\":\"\",\"nonce\":0,\"difficulty\":2},{\"index\":1"
+            + ",\"timeStamp\":\"2026-10-18 12:34:56.789\",\"data\":\"\",\"previousHash\":\"00")
+            .getBytes(StandardCharsets.UTF_8);
+    // Reads and writes the envelopes
+    private static final Gson gson = new Gson();
+    // Stores how every envelope starts, which no other response does
+    private static final String ENVELOPE_START = "{\"encoding\":\"";
+    // Stores the last response encoded, its encoding and its envelope, guarded by the class; a response the
+    // server answers from a ResponseCache is the same String every time, so it is only compressed once
+    private static String lastJson;
+    private static String lastEncoding;
+    private static String lastEnvelope;
+
+    /**
+     A compressed response, as sent on the wire.
+     */
+    static class Envelope {
+        // Stores the encoding, declared first so that every envelope starts with it
+        String encoding;
+        // Stores the length of the JSON response in bytes
+        int length;
+        // Stores the compressed JSON response in base64
+        String payload;
+    }
+
+    /**
+     Adds the accepted encodings to a JSON request.
+     @param request the JSON request
+     @param acceptEncoding the accepted encodings separated by commas, or null or empty to accept none
+     @return the request with the acceptEncoding field
+     */
+    static String withAcceptEncoding(String request, String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty() || !request.startsWith("{")) {
+            return request;
+        }
+        return "{\"acceptEncoding\":" + gson.toJson(acceptEncoding) + (request.startsWith("{}") ? "" : ",")
+                + request.substring(1);
+    }
+
+    /**
+     Picks the encoding of a response.
+     @param acceptEncoding the encodings the client accepts, in order of preference, or null
+     @return the first encoding this server supports, or null to send plain JSON
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            encoding = encoding.trim();
+            if (encoding.equals(GZIP) || encoding.equals(DEFLATE) || encoding.equals(DEFLATE_DICT)) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     Encodes a response for the wire: an envelope if it is long enough and the client accepts an encoding.
+     @param json the JSON response
+     @param encoding the negotiated encoding, or null for none
+     @return the line to send
+     */
+    static String encode(String json, String encoding) {
+        if (encoding == null || json == null || json.length() < MIN_BYTES) {
+            return json;
+        }
+        synchronized (ResponseCodec.class) {
+            if (json == lastJson && encoding.equals(lastEncoding)) {
+                return lastEnvelope;
+            }
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Envelope envelope = new Envelope();
+        envelope.encoding = encoding;
+        envelope.length = bytes.length;
+        envelope.payload = Base64.getEncoder().encodeToString(compress(bytes, encoding));
+        String line = gson.toJson(envelope);
+        synchronized (ResponseCodec.class) {
+            lastJson = json;
+            lastEncoding = encoding;
+            lastEnvelope = line;
+        }
+        return line;
+    }
+
+    /**
+     Decodes a line read from the wire.
+     @param line the line, an envelope or plain JSON
+     @return the JSON response, the line itself if it is not an envelope
+     @throws IllegalArgumentException if the envelope has an unknown encoding or a damaged payload
+     */
+    static String decode(String line) {
+        if (line == null || !line.startsWith(ENVELOPE_START)) {
+            return line;
+        }
+        Envelope envelope = gson.fromJson(line, Envelope.class);
+        byte[] bytes = decompress(Base64.getDecoder().decode(envelope.payload), envelope.encoding, envelope.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     Compresses bytes with an encoding.
+     @param bytes the bytes
+     @param encoding gzip, deflate or deflate-dict
+     @return the compressed bytes
+     */
+    static byte[] compress(byte[] bytes, String encoding) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        if (encoding.equals(GZIP)) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {{ def.setLevel(LEVEL); }}) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+        Deflater deflater = new Deflater(LEVEL);
+        try {
+            if (encoding.equals(DEFLATE_DICT)) {
+                deflater.setDictionary(DICTIONARY);
+            }
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     Decompresses bytes compressed by compress().
+     @param bytes the compressed bytes
+     @param encoding the encoding they were compressed with
+     @param length the length of the decompressed bytes
+     @return the decompressed bytes
+     @throws IllegalArgumentException if the encoding is unknown or the bytes are damaged
+     */
+    static byte[] decompress(byte[] bytes, String encoding, int length) {
+        byte[] result = new byte[length];
+        if (encoding.equals(GZIP)) {
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                int read = gzip.readNBytes(result, 0, length);
+                if (read != length) {
+                    throw new IllegalArgumentException("The gzip payload holds " + read + " of " + length + " bytes");
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Damaged gzip payload", e);
+            }
+            return result;
+        }
+        if (!encoding.equals(DEFLATE) && !encoding.equals(DEFLATE_DICT)) {
+            throw new IllegalArgumentException("Unknown encoding: " + encoding);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(result, read, length - read);
+                if (n == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(DICTIONARY);
+                } else if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalArgumentException("The " + encoding + " payload holds " + read + " of " + length + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Damaged " + encoding + " payload", e);
+        } finally {
+            inflater.end();
+        }
+        return result;
+    }
+
+    /**
+     Fetches the whole chain of a running server with each encoding, and prints the bytes received, the time of
+     a request over the loopback and the time compressing and decompressing the response takes on this computer.
+     @param args optional number of requests per encoding, 20 by default
+     @throws IOException if the server cannot be reached
+     */
+    public static void main(String[] args) throws IOException {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        String plain = null;
+        for (String encoding : new String[]{null, GZIP, DEFLATE, DEFLATE_DICT}) {
+            long wireBytes = 0;
+            long totalNanos = 0;
+            try (Socket socket = new Socket("localhost", ServerTCP.PORT)) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                // The first request warms up both ends
+                for (int r = -1; r < requests; r++) {
+                    long start = System.nanoTime();
+                    out.println(withAcceptEncoding(new NormalRequestMessage(3).toString(), encoding));
+                    out.flush();
+                    String line = in.readLine();
+                    String json = decode(line);
+                    if (r >= 0) {
+                        totalNanos += System.nanoTime() - start;
+                        wireBytes += line.length() + 1;
+                    }
+                    if (plain == null) {
+                        plain = json;
+                    } else if (!plain.equals(json)) {
+                        throw new IllegalStateException("The " + encoding + " response differs from the plain one");
+                    }
+                }
+            }
+            String cpu = "";
+            if (encoding != null) {
+                byte[] bytes = plain.getBytes(StandardCharsets.UTF_8);
+                long compressNanos = 0;
+                long decompressNanos = 0;
+                for (int r = 0; r < requests; r++) {
+                    long start = System.nanoTime();
+                    byte[] compressed = compress(bytes, encoding);
+                    long middle = System.nanoTime();
+                    decompress(compressed, encoding, bytes.length);
+                    compressNanos += middle - start;
+                    decompressNanos += System.nanoTime() - middle;
+                }
+                cpu = String.format(", compress %.2f ms, decompress %.2f ms", compressNanos / 1e6 / requests,
+                        decompressNanos / 1e6 / requests);
+            }
+            System.out.println(String.format("%-12s %9d bytes on the wire (%.1f%% of plain), %.2f ms per request%s",
+                    encoding == null ? "plain" : encoding, wireBytes / requests,
+                    100.0 * wireBytes / requests / (plain.length() + 1), totalNanos / 1e6 / requests, cpu));
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ *
+ * This Java file implements the console log of the server. A handler thread that logs a message only puts it
+ * into a bounded ring buffer; a writer thread takes the messages out in batches and prints them, so a slow
+ * console no longer holds up requests. Each message has a level, and messages below blockchain.log.level
+ * (ERROR, WARN, INFO, DEBUG or TRACE; INFO by default) are dropped before anything is built: messages are
+ * Suppliers, or a fixed text plus a payload, which the writer thread only joins when it prints them.
+ * Payloads such as the JSON of the whole chain are cut to blockchain.log.maxPayloadChars characters. When the
+ * ring buffer of blockchain.log.bufferSize messages is full, new messages are dropped rather than waited for,
+ * and the next message printed says how many were lost. The main method compares the time a handler spends
+ * logging the chain view with System.out.println and with this log.
+ */
+
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.function.Supplier;
+
+public class ServerLog {
+
+    // Stores the levels, most severe first
+    static final int ERROR = 0;
+    static final int WARN = 1;
+    static final int INFO = 2;
+    static final int DEBUG = 3;
+    static final int TRACE = 4;
+    // Stores the names of the levels, as printed and as given to blockchain.log.level
+    private static final String[] NAMES = {"ERROR", "WARN", "INFO", "DEBUG", "TRACE"};
+    // Stores the least severe level that is logged
+    private static volatile int level = levelOf(System.getProperty("blockchain.log.level", "INFO"));
+    // Stores the number of characters of a payload that are printed
+    static final int MAX_PAYLOAD_CHARS = Integer.getInteger("blockchain.log.maxPayloadChars", 512);
+    // Stores the ring buffer of messages waiting to be printed, guarded by itself
+    private static final Entry[] ring = new Entry[Math.max(Integer.getInteger("blockchain.log.bufferSize", 8192), 1)];
+    // Stores the position of the oldest message in the ring buffer and how many it holds
+    private static int head;
+    private static int size;
+    // Stores how many messages were dropped because the ring buffer was full, and not reported yet
+    private static long dropped;
+    // Stores how many messages the writer thread took out of the ring buffer, including ones not printed yet
+    private static long taken;
+    // Stores how many messages were put into the ring buffer
+    private static long put;
+    // Stores where the writer thread prints
+    private static PrintStream console = System.out;
+    // Formats the time of the messages, in the format of the chain view; only used by the writer thread
+    private static final SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     A message waiting in the ring buffer.
+     */
+    private static class Entry {
+        int level;
+        long millis;
+        String thread;
+        // Stores either the message, or the Supplier that builds it
+        String message;
+        Supplier<String> supplier;
+        // Stores the payload printed after the message, or null
+        String payload;
+    }
+
+    static {
+        Thread writer = new Thread(ServerLog::write, "server-log");
+        writer.setDaemon(true);
+        writer.start();
+        // Print what is still in the ring buffer when the server stops
+        Runtime.getRuntime().addShutdownHook(new Thread(ServerLog::flush, "server-log-flush"));
+    }
+
+    /**
+     Parses the name of a level.
+     @param name ERROR, WARN, INFO, DEBUG or TRACE, in any case
+     @return the level, INFO if the name is unknown
+     */
+    static int levelOf(String name) {
+        for (int l = 0; l < NAMES.length; l++) {
+            if (NAMES[l].equalsIgnoreCase(name.trim())) {
+                return l;
+            }
+        }
+        return INFO;
+    }
+
+    /**
+     Sets the least severe level that is logged.
+     @param newLevel one of ERROR, WARN, INFO, DEBUG and TRACE
+     */
+    static void setLevel(int newLevel) {
+        level = newLevel;
+    }
+
+    /**
+     Checks whether messages of a level are logged, for callers that do work of their own to build one.
+     @param messageLevel the level of the message
+     @return true if it would be printed
+     */
+    static boolean isEnabled(int messageLevel) {
+        return messageLevel <= level;
+    }
+
+    /***
+     * Function to log a message at level ERROR
+     * @param message The message
+     */
+    static void error(String message) {
+        log(ERROR, message, null, null);
+    }
+
+    /***
+     * Function to log a message at level WARN
+     * @param message The message
+     */
+    static void warn(String message) {
+        log(WARN, message, null, null);
+    }
+
+    /***
+     * Function to log a message at level WARN, built by the writer thread only if WARN is logged
+     * @param message Builds the message; it must only read values that do not change afterwards
+     */
+    static void warn(Supplier<String> message) {
+        log(WARN, null, message, null);
+    }
+
+    /***
+     * Function to log a message at level INFO
+     * @param message The message
+     */
+    static void info(String message) {
+        log(INFO, message, null, null);
+    }
+
+    /***
+     * Function to log a message at level INFO, built by the writer thread only if INFO is logged
+     * @param message Builds the message; it must only read values that do not change afterwards
+     */
+    static void info(Supplier<String> message) {
+        log(INFO, null, message, null);
+    }
+
+    /***
+     * Function to log a message followed by a payload, such as a JSON response, at level INFO; the writer
+     * thread joins them
+     * @param message The message
+     * @param payload The payload, cut to blockchain.log.maxPayloadChars characters
+     */
+    static void info(String message, String payload) {
+        log(INFO, message, null, payload);
+    }
+
+    /***
+     * Function to log a message at level DEBUG, built by the writer thread only if DEBUG is logged
+     * @param message Builds the message; it must only read values that do not change afterwards
+     */
+    static void debug(Supplier<String> message) {
+        log(DEBUG, null, message, null);
+    }
+
+    /***
+     * Function to log a message followed by a payload at level DEBUG; the writer thread joins them
+     * @param message The message
+     * @param payload The payload, cut to blockchain.log.maxPayloadChars characters
+     */
+    static void debug(String message, String payload) {
+        log(DEBUG, message, null, payload);
+    }
+
+    /**
+     Puts a message into the ring buffer, or drops it if its level is not logged or the buffer is full.
+     The caller never waits for the console.
+     @param messageLevel the level of the message
+     @param message the message, or null if the supplier builds it
+     @param supplier builds the message, or null
+     @param payload the payload printed after the message, or null
+     */
+    private static void log(int messageLevel, String message, Supplier<String> supplier, String payload) {
+        if (messageLevel > level) {
+            return;
+        }
+        Entry entry = new Entry();
+        entry.level = messageLevel;
+        entry.millis = System.currentTimeMillis();
+        entry.thread = Thread.currentThread().getName();
+        entry.message = message;
+        entry.supplier = supplier;
+        entry.payload = payload;
+        synchronized (ring) {
+            if (size == ring.length) {
+                dropped++;
+                return;
+            }
+            ring[(head + size) % ring.length] = entry;
+            size++;
+            put++;
+            if (size == 1) {
+                ring.notifyAll();
+            }
+        }
+    }
+
+    /**
+     Runs the writer thread: takes all the messages in the ring buffer at once, and prints them with one flush.
+     */
+    private static void write() {
+        Entry[] batch = new Entry[ring.length];
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            int count;
+            long lost;
+            synchronized (ring) {
+                while (size == 0) {
+                    try {
+                        ring.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                count = size;
+                for (int i = 0; i < count; i++) {
+                    batch[i] = ring[(head + i) % ring.length];
+                    ring[(head + i) % ring.length] = null;
+                }
+                head = (head + count) % ring.length;
+                size = 0;
+                lost = dropped;
+                dropped = 0;
+            }
+            text.setLength(0);
+            if (lost > 0) {
+                text.append(timeFormat.format(new Date())).append(" WARN  [server-log] ")
+                        .append(lost).append(" log message(s) dropped, the log buffer was full\n");
+            }
+            for (int i = 0; i < count; i++) {
+                format(batch[i], text);
+                batch[i] = null;
+            }
+            console.print(text);
+            console.flush();
+            synchronized (ring) {
+                taken += count;
+                ring.notifyAll();
+            }
+        }
+    }
+
+    /**
+     Formats a message as a line of the log.
+     @param entry the message
+     @param text where the line is appended
+     */
+    private static void format(Entry entry, StringBuilder text) {
+        text.append(timeFormat.format(new Date(entry.millis))).append(' ').append(NAMES[entry.level]);
+        for (int pad = NAMES[entry.level].length(); pad < 5; pad++) {
+            text.append(' ');
+        }
+        text.append(" [").append(entry.thread).append("] ");
+        try {
+            text.append(entry.supplier != null ? entry.supplier.get() : entry.message);
+        } catch (RuntimeException e) {
+            text.append("Could not build the log message: ").append(e);
+        }
+        if (entry.payload != null) {
+            if (entry.payload.length() <= MAX_PAYLOAD_CHARS) {
+                text.append(entry.payload);
+            } else {
+                text.append(entry.payload, 0, MAX_PAYLOAD_CHARS).append("... (")
+                        .append(entry.payload.length() - MAX_PAYLOAD_CHARS).append(" more characters)");
+            }
+        }
+        text.append('\n');
+    }
+
+    /**
+     Waits until every message logged so far was printed, or one second passed.
+     */
+    static void flush() {
+        long deadline = System.currentTimeMillis() + 1000;
+        synchronized (ring) {
+            long target = put;
+            while (taken < target && System.currentTimeMillis() < deadline) {
+                try {
+                    ring.wait(Math.max(deadline - System.currentTimeMillis(), 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     Measures the time a handler thread spends logging the response to a view request of a chain of the given
+     length, with a synchronous System.out.println of the whole JSON and with this log. Run it with the output
+     redirected, e.g. to /dev/null or a file, since the point is what the console costs the caller.
+     @param args optional number of Blocks, 2000 by default, and number of messages, 2000 by default
+     */
+    public static void main(String[] args) {
+        int blocks = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        BlockChain blockChain = new BlockChain();
+        blockChain.addBlock(new Block(0, BlockChain.getTime(), "Genesis", 0));
+        for (int i = 1; i < blocks; i++) {
+            blockChain.addBlock(new Block(i, BlockChain.getTime(), "Alice pays Bob " + i, 0));
+        }
+        String json = blockChain.toString();
+        // Print the measurements on the real standard error, apart from the messages themselves
+        PrintStream report = new PrintStream(new FileOutputStream(FileDescriptor.err), true);
+        console = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int m = 0; m < messages; m++) {
+                System.out.println("Setting response to " + json);
+            }
+            long println = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int m = 0; m < messages; m++) {
+                info("Setting response to ", json);
+            }
+            long async = System.nanoTime() - start;
+            flush();
+            long drained = System.nanoTime() - start;
+            setLevel(WARN);
+            start = System.nanoTime();
+            for (int m = 0; m < messages; m++) {
+                info("Setting response to ", json);
+            }
+            long filtered = System.nanoTime() - start;
+            setLevel(INFO);
+            report.println(String.format("%d characters per message: println %.2f us, async %.2f us (all printed"
+                    + " after %.2f us each), filtered %.3f us per call", json.length(), println / 1e3 / messages,
+                    async / 1e3 / messages, drained / 1e3 / messages, filtered / 1e3 / messages));
+        }
+    }
+}
@@ -3,155 +3,489 @@
  * Andrew ID: sbadhan
  * Last Modified: 03/17/2023
  *This class represents a TCP server that interacts with a client to perform various blockchain operations.
+ * Mining for add and repair requests is bounded by a deadline (the request's own, capped by the system
+ * property blockchain.server.maxMiningMillis) and stops when the client disconnects. When the system
+ * property blockchain.server.targetBlockMillis is set, the server ignores the difficulty sent by the
+ * client and picks each Block's target so that mining takes about that long. Clients are served by a pool
+ * of handler threads; the chain itself is only used by one request at a time, and Blocks are mined without
+ * holding it, so reads and replication go on while a Block is mined. A client may keep its connection
+ * open and send further requests on it, one at a time, each after the response to the last; a connection
+ * idle for longer than blockchain.server.idleMillis is closed, since it holds a handler thread.
+ * The server listens on blockchain.server.port. Started with blockchain.server.leader=host:port it is a
+ * read-only follower of that server, see ReplicationFollower; any server answers followers with operation 11,
+ * and every follower holds one of its handler threads while connected. Started with
+ * blockchain.server.peers=host:port,... it mines its own Blocks and keeps the heaviest chain among its peers,
+ * see PeerSync; peers reach it at blockchain.server.address. Responses longer than
+ * blockchain.server.compressMinBytes are compressed for clients that accept it, see ResponseCodec. Add requests whose Blocks
+ * would cost too much are rejected before mining, see AdmissionController. Accepted add requests take turns
+ * mining in the order picked by the MiningScheduler, cheapest expected work first. A batch (operation 17)
+ * carries many requests, answered in one response, and mines all of its Blocks in one turn.
+ * Each request is a Java Flight Recorder event, org.example.Request, split into parsing, executing, serializing
+ * and writing; blockchain.jfc records it together with mining, verification and repair, see RequestEvent.
+ * The console log is written by a background thread and filtered by blockchain.log.level, see ServerLog.
+ * With blockchain.server.stateDir set, the chain is saved there and restored on the next start, see
+ * ChainStateFile; with blockchain.server.fastStart=true the server also reuses the calibration saved there, or
+ * measures it in the background, so that it serves requests a moment after it starts.
  */
 
 package org.example;
 
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import java.net.*;
 import java.io.*;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ServerTCP {
 
-    // Stores an array list of blocks in the blockchain
+    // Stores an array list of blocks in the blockchain; requests lock it while they use it
     static BlockChain blockChain = new BlockChain();
-    // Stores the JSON response to be sent to the client
-    static String json_response = null;
-    // Stores the ResponseMessage to be converted to JSON which would be later sent to the client
-    static ResponseMessage responseMessage;
-    // Stores the response which is a part of the overall response message
-    static String response;
     static Gson gson = new Gson();
+    // Stores the number of threads serving clients at the same time
+    static final int HANDLER_THREADS = Integer.getInteger("blockchain.server.handlerThreads", 8);
+    // Stores the longest time in milliseconds the server mines for any single request
+    static final long MAX_MINING_MILLIS = Long.getLong("blockchain.server.maxMiningMillis", 300000);
+    // Stores the time in milliseconds each Block should take to mine, or 0 to use the client's difficulty
+    static final long TARGET_BLOCK_MILLIS = Long.getLong("blockchain.server.targetBlockMillis", 0);
+    // Picks the work of each Block when TARGET_BLOCK_MILLIS is set, otherwise null
+    static DifficultyController difficultyController;
+    // Stores the longest estimated mining time in milliseconds an add request may have to be accepted
+    static final long MAX_ESTIMATED_MILLIS = Long.getLong("blockchain.server.maxEstimatedMillis", MAX_MINING_MILLIS);
+    // Stores the cap on the expected hashes of all accepted add requests that have not finished yet
+    static final double MAX_OUTSTANDING_HASHES = Double.parseDouble(
+            System.getProperty("blockchain.server.maxOutstandingHashes", String.valueOf(Math.pow(16, 8))));
+    // Decides which add requests the server accepts
+    static AdmissionController admissionController = new AdmissionController(MAX_ESTIMATED_MILLIS, MAX_OUTSTANDING_HASHES);
+    // Stores how many milliseconds of estimated work a waiting add request is forgiven per millisecond it waits
+    static final double AGING_RATE = Double.parseDouble(System.getProperty("blockchain.server.agingRate", "1.0"));
+    // Decides which accepted add request mines next
+    static MiningScheduler miningScheduler = new MiningScheduler(AGING_RATE);
+    // Stores the most Blocks a time range request returns per page
+    static final int MAX_PAGE_SIZE = Integer.getInteger("blockchain.server.maxPageSize", 100);
+    // Stores the port the server listens on
+    static final int PORT = Integer.getInteger("blockchain.server.port", 6789);
+    // Stores the address of the leader as host:port if this server is a follower, otherwise null
+    static final String LEADER = System.getProperty("blockchain.server.leader");
+    // Copies the leader's Blocks if this server is a follower, otherwise null
+    static ReplicationFollower follower;
+    // Stores when each Block of the chain was added, on the leader; guarded by the chain
+    static final List<Long> appendedMillis = new ArrayList<>();
+    // Stores the longest time in milliseconds a follower's request may wait for a new Block
+    static final long MAX_REPLICATION_WAIT_MILLIS = 10000;
+    // Stores how long in milliseconds a kept-alive connection may wait for its next request before it is closed
+    static final int IDLE_MILLIS = Integer.getInteger("blockchain.server.idleMillis", 5000);
+    // Stores the addresses of the peers as host:port separated by commas, or null if this server has none
+    static final String PEERS = System.getProperty("blockchain.server.peers");
+    // Stores the address the peers reach this server at
+    static final String ADDRESS = System.getProperty("blockchain.server.address", "localhost:" + PORT);
+    // Stores the most headers or bodies a sync request returns
+    static final int MAX_SYNC_BATCH = Integer.getInteger("blockchain.server.maxSyncBatch", 1000);
+    // Keeps the chain in sync with the peers if this server has any, otherwise null
+    static PeerSync peerSync;
+    // Stores the directory the chain and the calibration are saved in, or null to keep them in memory only
+    static final String STATE_DIR = System.getProperty("blockchain.server.stateDir");
+    // Restores and saves the chain if STATE_DIR is set, otherwise null
+    static ChainStateFile stateFile;
+    // Stores true to start serving before the full calibration: reuse a saved one, or measure it in the background
+    static final boolean FAST_START = Boolean.getBoolean("blockchain.server.fastStart");
+    // Stores the number of hashes of each round, and the milliseconds of all the rounds, of the rough
+    // calibration a fast start serves with until the full one is done
+    static final int QUICK_CALIBRATION_HASHES = 10000;
+    static final long QUICK_CALIBRATION_MILLIS = 1000;
+    // Stores the last status and view responses with the version of the chain they were built from
+    static final ResponseCache statusCache = new ResponseCache();
+    static final ResponseCache viewCache = new ResponseCache();
+    // Stores the flight recorder event of the request the handler thread is serving, while it is enabled
+    private static final ThreadLocal<RequestEvent> currentEvent = new ThreadLocal<>();
+    // Serializes the responses; Blocks show their timestamps in this format
+    private static final Gson responseGson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss.SSS").create();
+    // Stores the disconnect watcher the handler thread started for its current request, if any
+    private static final ThreadLocal<ClientDisconnectWatcher> currentWatcher = new ThreadLocal<>();
+    // Stores the stream the handler thread reads the requests of its connection from
+    private static final ThreadLocal<PushbackInputStream> currentRequests = new ThreadLocal<>();
     public static void main(String[] args) {
-        // Define a TCP style Socket
-        Socket clientSocket = null;
         // Define a TCP style ServerSocket
         ServerSocket listenSocket;
+        // Serves the connected clients, so one client waiting for a Block does not hold up the others
+        ExecutorService handlers = Executors.newFixedThreadPool(HANDLER_THREADS);
 
         try {
 
-            int serverPort = 6789;
+            int serverPort = PORT;
             listenSocket = new ServerSocket(serverPort);
-            // Create the first Block, called the genesis Block
-            Block genesis = new Block(0, blockChain.getTime(), "Genesis", 2);
-            // Set the previous hash of the genesis block to be an empty String
-            genesis.setPreviousHash("");
+            if (STATE_DIR != null) {
+                stateFile = new ChainStateFile(java.nio.file.Paths.get(STATE_DIR), blockChain);
+            }
             // Compute the hashes per second on this system
-            blockChain.computeHashesPerSecond();
-            // Update chain hash by the hash of the genesis Block
-            blockChain.chainHash = genesis.proofOfWork();
-            // add Genesis block to chain
-            blockChain.blkChain.add(genesis);
+            calibrate();
+            if (TARGET_BLOCK_MILLIS > 0) {
+                difficultyController = new DifficultyController(TARGET_BLOCK_MILLIS, blockChain.getHashesPerSecond());
+            }
+            if (LEADER != null && PEERS != null) {
+                throw new IllegalArgumentException("A server is either a follower or a peer, not both");
+            }
+            if (stateFile != null) {
+                // Start from the chain of the last run instead of a new genesis Block
+                synchronized (blockChain) {
+                    int restored = stateFile.restore();
+                    chainChanged(false);
+                    ServerLog.info(() -> "Restored " + restored + " blocks from " + STATE_DIR);
+                }
+            }
+            if (PEERS != null) {
+                peerSync = new PeerSync(ADDRESS, java.util.Arrays.asList(PEERS.split(",")), blockChain,
+                        () -> chainChanged(true), 3);
+            }
+            if (LEADER != null) {
+                // A follower copies the genesis Block and all others from the leader
+                follower = new ReplicationFollower(LEADER, blockChain, appendedMillis);
+                follower.start();
+            } else if (blockChain.getChainSize() == 0) {
+                // Create the first Block, called the genesis Block
+                Block genesis = new Block(0, BlockChain.getTime(), "Genesis", 2);
+                // Set the previous hash of the genesis block to be an empty String
+                genesis.setPreviousHash(Hash256.EMPTY);
+                // Mine the genesis Block, update the chain hash and add it to the chain
+                synchronized (blockChain) {
+                    blockChain.addBlock(genesis);
+                    chainChanged(false);
+                }
+            }
 
-            System.out.println("Blockchain server running");
-            System.out.println("We have a visitor");
-            boolean flag = true;
+            if (peerSync != null) {
+                // Catch up with the peers' chain on the sync thread, while this loop already accepts them
+                peerSync.start();
+                peerSync.announce();
+            }
+            if (stateFile != null) {
+                stateFile.start();
+            }
 
-            while (flag == true) {
+            ServerLog.info(LEADER != null ? "Blockchain server running as a follower of " + LEADER
+                    : PEERS != null ? "Blockchain server running at " + ADDRESS + " with peers " + PEERS
+                    : "Blockchain server running");
 
-                clientSocket = listenSocket.accept();
-                Scanner in;
-                in = new Scanner(clientSocket.getInputStream());
-                PrintWriter out;
-                out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(clientSocket.getOutputStream())));
+            // Operation 6 closes the listening socket, which ends this loop
+            while (!listenSocket.isClosed()) {
+                Socket clientSocket;
+                try {
+                    clientSocket = listenSocket.accept();
+                } catch (SocketException e) {
+                    break;
+                }
+                ServerLog.info("We have a visitor");
+                handlers.execute(() -> handleClient(clientSocket, listenSocket));
+            }
+        }
+        // Handle IO exceptions
+        catch (IOException e) {
+            ServerLog.warn("IO Exception:" + e.getMessage());
+        }
+        finally {
+            handlers.shutdown();
+            if (stateFile != null) {
+                stateFile.close();
+            }
+        }
+    }
+
+    /**
+     Serves one client: reads its requests, performs the operations and replies with the JSON responses.
+     @param clientSocket the connection of the client, closed when the client closes it or stays idle
+     @param listenSocket the listening socket of the server, closed when the client asks the server to exit
+     */
+    static void handleClient(Socket clientSocket, ServerSocket listenSocket) {
+        try {
+            clientSocket.setSoTimeout(IDLE_MILLIS);
+            // The disconnect watcher pushes the start of a next request back onto this stream
+            PushbackInputStream requests = new PushbackInputStream(clientSocket.getInputStream());
+            currentRequests.set(requests);
+            Scanner in;
+            in = new Scanner(requests);
+            PrintWriter out;
+            out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(clientSocket.getOutputStream())));
+            // Stores the JSON response to be sent to the client
+            String json_response;
 
+            // A client may send further requests on the same connection, one at a time, until it closes it
+            // or stays idle for IDLE_MILLIS
+            while (in.hasNextLine()) {
                 // Get the input from the client in JSON format
                 String userInput = in.nextLine();
+                // Time the phases of the request while a flight recording wants them
+                RequestEvent event = new RequestEvent();
+                event.begin();
+                if (event.isEnabled()) {
+                    event.startNanos = System.nanoTime();
+                    event.requestBytes = userInput.length();
+                    currentEvent.set(event);
+                }
                 // Convert JSON client request into a RequestMessage format
-                RequestMessage requestMessage = gson.fromJson(userInput, RequestMessage.class);
+                RequestMessage requestMessage = parse(userInput, RequestMessage.class);
+                // Large responses are compressed if the client accepts it
+                String encoding = ResponseCodec.negotiate(requestMessage.acceptEncoding);
+                if (follower != null && (requestMessage.operation == 1 || requestMessage.operation == 4
+                        || requestMessage.operation == 5)) {
+                    // Only the leader changes the chain
+                    out.println(toJson(new NormalResponseMessage(requestMessage.operation,
+                            "This server is a read-only follower; send changes to the leader at " + LEADER)));
+                    out.flush();
+                    recordRequest(event, requestMessage.operation);
+                    continue;
+                }
 
                 switch(requestMessage.operation){
                     case 0:{
                         // Form the JSON response by calling viewBlockChainStatus()
                         json_response = viewBlockChainStatus(requestMessage.operation);
-                        System.out.println("Response : " + json_response);
+                        ServerLog.info("Response : ", json_response);
                         // Reply the JSON response to the client
-                        out.println(json_response);
-                        out.flush();
+                        reply(out, json_response, encoding);
                     }; break;
                     case 1:{
-                        System.out.println("Adding a block");
+                        ServerLog.info("Adding a block");
                         // Form a AddRequestMessage from the client request
-                        AddRequestMessage message = gson.fromJson(userInput, AddRequestMessage.class);
+                        AddRequestMessage message = parse(userInput, AddRequestMessage.class);
                         // Form the JSON response by calling addTransaction()
-                        json_response = addTransaction(message);
-                        System.out.println("..." + json_response);
+                        json_response = addTransaction(message, clientSocket);
+                        ServerLog.info("...", json_response);
                         // Reply the JSON response to the client
-                        out.println(json_response);
-                        out.flush();
+                        reply(out, json_response, encoding);
                     }; break;
                     case 2:{
-                        System.out.println("Verifying entire chain");
-                        // Form a NormalRequestMessage from the client request
-                        NormalRequestMessage message = gson.fromJson(userInput, NormalRequestMessage.class);
+                        ServerLog.info("Verifying entire chain");
+                        // Form a VerifyRequestMessage from the client request
+                        VerifyRequestMessage message = parse(userInput, VerifyRequestMessage.class);
                         // Form the JSON response by calling verifyBlockChain()
                         json_response = verifyBlockChain(message);
                         // Reply the JSON response to the client
-                        out.println(json_response);
-                        out.flush();
+                        reply(out, json_response, encoding);
                     }; break;
                     case 3:{
-                        System.out.println("View the Blockchain");
+                        ServerLog.info("View the Blockchain");
                         // Form the JSON response by calling viewBlockChain()
                         json_response = viewBlockChain();
-                        System.out.println("Setting response to " + json_response);
+                        ServerLog.info("Setting response to ", json_response);
                         // Reply the JSON response to the client
-                        out.println(json_response);
-                        out.flush();
+                        reply(out, json_response, encoding);
                     }; break;
                     case 4:{
-                        System.out.println("Corrupt the Blockchain");
+                        ServerLog.info("Corrupt the Blockchain");
                         // Form a CorruptRequestMessage from the client request
-                        CorruptRequestMessage message = gson.fromJson(userInput, CorruptRequestMessage.class);
+                        CorruptRequestMessage message = parse(userInput, CorruptRequestMessage.class);
                         // Form the JSON response by calling corruptBlockChain()
                         json_response = corruptBlockChain(message);
-                        System.out.println("Setting response to " + response);
+                        ServerLog.info("Setting response to ", json_response);
                         // Reply the JSON response to the client
-                        out.println(json_response);
-                        out.flush();
+                        reply(out, json_response, encoding);
                     }; break;
                     case 5:{
-                        System.out.println("Repairing the entire chain");
+                        ServerLog.info("Repairing the entire chain");
                         // Form a NormalRequestMessage from the client request
-                        NormalRequestMessage message = gson.fromJson(userInput, NormalRequestMessage.class);
+                        NormalRequestMessage message = parse(userInput, NormalRequestMessage.class);
                         // Form the JSON response by calling repairBlockChain()
-                        json_response = repairBlockChain(message);
-                        System.out.println("Setting response to " + response);
+                        json_response = repairBlockChain(message, clientSocket);
+                        ServerLog.info("Setting response to ", json_response);
+                        // Reply the JSON response to the client
+                        reply(out, json_response, encoding);
+                    }; break;
+                    case 7:
+                    case 8:{
+                        ServerLog.info(requestMessage.operation == 7 ? "Finding a block" : "Finding a transaction");
+                        // Form a LookupRequestMessage from the client request
+                        LookupRequestMessage message = parse(userInput, LookupRequestMessage.class);
+                        // Form the JSON response by calling findBlocks()
+                        json_response = findBlocks(message);
+                        ServerLog.info("Setting response to ", json_response);
+                        // Reply the JSON response to the client
+                        reply(out, json_response, encoding);
+                    }; break;
+                    case 9:{
+                        ServerLog.info("Reading a time range");
+                        // Form a RangeRequestMessage from the client request
+                        RangeRequestMessage message = parse(userInput, RangeRequestMessage.class);
+                        // Form the JSON response by calling viewBlockRange()
+                        json_response = viewBlockRange(message);
+                        // Reply the JSON response to the client
+                        reply(out, json_response, encoding);
+                    }; break;
+                    case 11:{
+                        // Form a ReplicateRequestMessage from the follower request
+                        ReplicateRequestMessage message = parse(userInput, ReplicateRequestMessage.class);
+                        // Form the JSON response by calling replicate(), which may wait for a new Block
+                        json_response = replicate(message);
+                        // Reply the JSON response to the follower
+                        reply(out, json_response, encoding);
+                    }; break;
+                    case 12:{
+                        // Form the JSON response by calling viewTip()
+                        json_response = viewTip(requestMessage.operation);
+                        // Reply the JSON response to the peer
+                        reply(out, json_response, encoding);
+                    }; break;
+                    case 13:
+                    case 14:{
+                        // Form a SyncRequestMessage from the peer request
+                        SyncRequestMessage message = parse(userInput, SyncRequestMessage.class);
+                        // Form the JSON response by calling viewHeaders() or viewBodies()
+                        json_response = requestMessage.operation == 13 ? viewHeaders(message) : viewBodies(message);
+                        // Reply the JSON response to the peer
+                        reply(out, json_response, encoding);
+                    }; break;
+                    case 15:{
+                        // Form an AnnounceRequestMessage from the peer request
+                        AnnounceRequestMessage message = parse(userInput, AnnounceRequestMessage.class);
+                        // Form the JSON response by calling receiveAnnouncement()
+                        json_response = receiveAnnouncement(message);
+                        // Reply the JSON response to the peer
+                        reply(out, json_response, encoding);
+                    }; break;
+                    case 17:{
+                        ServerLog.info("Running a batch");
+                        // Form a BatchRequestMessage from the client request
+                        BatchRequestMessage message = parse(userInput, BatchRequestMessage.class);
+                        // Form the JSON response by calling runBatch()
+                        json_response = runBatch(message, clientSocket);
                         // Reply the JSON response to the client
-                        out.println(json_response);
-                        out.flush();
+                        reply(out, json_response, encoding);
+                    }; break;
+                    case 16:{
+                        // Form the JSON response by calling viewCacheStats()
+                        json_response = viewCacheStats(requestMessage.operation);
+                        // Reply the JSON response to the client
+                        reply(out, json_response, encoding);
                     }; break;
                     case 6:{
-                        flag = false;
+                        // Stop accepting clients; requests already being served still finish
+                        listenSocket.close();
                     }; break;
                     default:{
-                        System.out.println("Incorrect submission.");
+                        ServerLog.warn("Incorrect submission.");
                     }; break;
                 }
                 // Flush to client socket
                 out.flush();
+                // Read the next request only once the watcher of this one stopped reading the connection
+                awaitWatcher();
+                recordRequest(event, requestMessage.operation);
+                if (requestMessage.operation == 6) {
+                    break;
+                }
             }
         }
-        // Handle IO exceptions
-        catch (IOException e) {
-            System.out.println("IO Exception:" + e.getMessage());
+        // Handle IO exceptions and clients that disconnect before sending a request
+        catch (IOException | NoSuchElementException e) {
+            ServerLog.warn("IO Exception:" + e.getMessage());
         }
         // Always close the socket
         finally {
+            currentRequests.remove();
+            currentEvent.remove();
             try {
-                if (clientSocket != null) {
-                    clientSocket.close();
-                }
+                clientSocket.close();
             } catch (IOException e) {
                 // ignore exception on close
             }
         }
     }
 
+    /**
+     Parses a JSON request, adding the time it took to the flight recorder event of the request.
+     @param json the JSON request
+     @param type the class of the request message
+     @return the request message
+     */
+    static <T> T parse(String json, Class<T> type) {
+        RequestEvent event = currentEvent.get();
+        if (event == null) {
+            return gson.fromJson(json, type);
+        }
+        long start = System.nanoTime();
+        try {
+            return gson.fromJson(json, type);
+        } finally {
+            event.parseNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     Serializes a response message to JSON, adding the time it took to the flight recorder event of the request.
+     @param message the response message
+     @return the JSON response
+     */
+    static String toJson(Object message) {
+        return serialize(() -> responseGson.toJson(message));
+    }
+
+    /**
+     Runs a serialization, adding the time it took to the flight recorder event of the request.
+     @param serializer builds the JSON response
+     @return the JSON response
+     */
+    static String serialize(java.util.function.Supplier<String> serializer) {
+        RequestEvent event = currentEvent.get();
+        if (event == null) {
+            return serializer.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return serializer.get();
+        } finally {
+            event.serializeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     Writes a response to the client, compressed if it accepts it, see ResponseCodec. Compressing counts as
+     serializing in the flight recorder event of the request.
+     @param out the connection to the client
+     @param json the JSON response
+     @param encoding the negotiated encoding, or null for none
+     */
+    static void reply(PrintWriter out, String json, String encoding) {
+        RequestEvent event = currentEvent.get();
+        if (event == null) {
+            out.println(ResponseCodec.encode(json, encoding));
+            out.flush();
+            return;
+        }
+        long start = System.nanoTime();
+        String line = ResponseCodec.encode(json, encoding);
+        long encoded = System.nanoTime();
+        out.println(line);
+        out.flush();
+        event.serializeNanos += encoded - start;
+        event.writeNanos += System.nanoTime() - encoded;
+        event.responseBytes += line == null ? 0 : line.length() + 1;
+    }
+
+    /**
+     Commits the flight recorder event of a request once it was answered.
+     @param event the event, begun when the request was read
+     @param operation the operation of the request
+     */
+    static void recordRequest(RequestEvent event, int operation) {
+        currentEvent.remove();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.executeNanos = Math.max(System.nanoTime() - event.startNanos - event.parseNanos
+                    - event.serializeNanos - event.writeNanos, 0);
+            event.commit();
+        }
+    }
+
     /**
      Returns a JSON response message containing the current status of the blockchain.
      @param operation An integer representing the operation code.
@@ -159,21 +493,94 @@ public class ServerTCP {
      */
     public static String viewBlockChainStatus(int operation) {
 
-        // Create a StatusResponseMessage object
-        ResponseMessage message = new StatusResponseMessage(
-                operation,
-                blockChain.getChainSize(),
-                blockChain.getChainHash(),
-                (int) blockChain.getTotalExpectedHashes(),
-                blockChain.getTotalDifficulty(),
-                blockChain.getLatestBlock().getNonce(),
-                blockChain.getLatestBlock().getDifficulty(),
-                blockChain.getHashesPerSecond());
-
-        // Convert the object to JSON
-        json_response = gson.toJson(message);
-        // JSON response to client
-        return json_response;
+        // Read the wait times first, the scheduler does not wait for the chain; their version is read before
+        // them, so the response is never kept under a newer version than it was built from
+        long schedulerVersion = miningScheduler.getVersion();
+        Map<String, MiningScheduler.WaitTimes> waitTimes = miningScheduler.getWaitTimes();
+        // A kept response for the current versions is served without waiting for a miner to let go of the chain
+        String cached = statusCache.peek(statusVersion(schedulerVersion));
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (blockChain) {
+            return statusCache.get(statusVersion(schedulerVersion), () -> {
+                // Create a StatusResponseMessage object
+                StatusResponseMessage message = new StatusResponseMessage(
+                        operation,
+                        blockChain.getChainSize(),
+                        blockChain.getChainHash(),
+                        (int) blockChain.getTotalExpectedHashes(),
+                        blockChain.getTotalDifficulty(),
+                        blockChain.getLatestBlock().getNonce(),
+                        blockChain.getLatestBlock().getDifficulty(),
+                        blockChain.getHashesPerSecond(),
+                        waitTimes);
+                if (follower != null) {
+                    message.replication = follower.getStatus();
+                }
+                // Convert the object to JSON
+                return toJson(message);
+            });
+        }
+    }
+
+    /**
+     Returns the version a status response is kept under: the versions of the chain, of the wait times and of
+     the replication statistics.
+     @param schedulerVersion the version of the wait times, read before them
+     @return the version
+     */
+    private static List<Long> statusVersion(long schedulerVersion) {
+        return Arrays.asList(blockChain.getVersion(), schedulerVersion, follower == null ? 0L : follower.getVersion());
+    }
+
+    /**
+     Checks whether a Block mined outside the chain still continues it: the chain did not grow and its end was
+     not replaced while the Block was mined. The caller holds the chain.
+     @param block the mined Block
+     @return true if the Block can be appended
+     */
+    static boolean follows(Block block) {
+        return block.getIndex() == blockChain.getChainSize()
+                && blockChain.getChainHash().equals(block.getPreviousHash());
+    }
+
+    /**
+     Mines a Block holding a transaction and appends it to the chain, for add requests alone and in batches.
+     The chain is only held to read its end and to append the Block, so other requests go on while it is
+     mined. If a repair or a peer's chain replaced the end it was mined on, the transaction is mined again on
+     top of the new end. The caller has its turn from the MiningScheduler.
+     @param data the transaction data
+     @param difficulty the difficulty the client asked for; in adaptive mode the server decides instead
+     @param cancellation decides when mining has to stop
+     @return the appended Block
+     @throws MiningCancelledException if mining stopped first; the chain then does not hold the Block
+     */
+    static Block mineAndAppend(String data, int difficulty, MiningCancellation cancellation) {
+        while (true) {
+            Block newBlock;
+            synchronized (blockChain) {
+                // Create new Block
+                newBlock = new Block(blockChain.getChainSize(), BlockChain.getTime(), data, difficulty);
+
+                // Set previous hash of the new Block to be the chain hash
+                newBlock.setPreviousHash(blockChain.getChainHash());
+                // In adaptive mode the server decides how much work the Block takes
+                if (difficultyController != null) {
+                    difficultyController.applyTo(newBlock);
+                }
+            }
+            blockChain.mineBlock(newBlock, cancellation);
+            synchronized (blockChain) {
+                // Add Block to BlockChain, unless a repair or a peer's chain replaced the end it was mined on
+                if (follows(newBlock)) {
+                    blockChain.appendBlock(newBlock);
+                    chainChanged(false);
+                    return newBlock;
+                }
+            }
+            // Mine the transaction again on top of the new end of the chain
+        }
     }
 
     /**
@@ -184,63 +591,133 @@ public class ServerTCP {
      @return A JSON response containing a NormalResponseMessage object with the operation and response string.
      */
     public static String addTransaction(AddRequestMessage message) {
+        return addTransaction(message, null);
+    }
 
-        // Create new Block
-        Block newBlock = new Block(blockChain.getChainSize(), blockChain.getTime(),
-                message.transactionData, message.difficulty);
-
-        // Set previous hash of the new Block to be the chain hash
-        newBlock.setPreviousHash(blockChain.getChainHash());
-        
-        Timestamp t1 = blockChain.getTime();
-        // Add Block to BlockChain
-        blockChain.addBlock(newBlock);
-        Timestamp t2 = blockChain.getTime();
+    /**
+     Adds a transaction to the blockchain like addTransaction(AddRequestMessage), but gives up mining when the
+     deadline of the request passes or the client disconnects. The deadline covers waiting for other requests
+     as well as mining. Requests whose Block would cost more than the server allows are rejected before mining.
+     @param message An AddRequestMessage object containing the transaction data, difficulty and timeout.
+     @param clientSocket The connection of the client to watch while mining, or null to only apply the deadline.
+     @return A JSON response containing a NormalResponseMessage, a RejectedResponseMessage if the request was not
+     accepted, or a TimeoutResponseMessage if mining was stopped.
+     */
+    // The disconnect watcher is only opened to be closed when mining ends, the body never uses it
+    @SuppressWarnings("try")
+    public static String addTransaction(AddRequestMessage message, Socket clientSocket) {
+
+        // Data that UTF-8 cannot keep would be hashed and stored as something else; retrying will never help
+        String invalid = invalidData(message.transactionData);
+        if (invalid != null) {
+            String response = "Adding the block was rejected: " + invalid;
+            ServerLog.info("Setting response to ", response);
+            return toJson(new RejectedResponseMessage(message.operation, response, invalid, 0,
+                    admissionController.getMaxEstimatedMillis(), (long) admissionController.getOutstandingHashes(), -1));
+        }
+
+        // Estimate the cost of the Block before doing any work for it
+        double hashesPerSecond = difficultyController != null
+                ? difficultyController.getHashesPerMilli() * 1000 : blockChain.getHashesPerSecond();
+        double expectedHashes = difficultyController != null
+                ? difficultyController.getHashesPerMilli() * TARGET_BLOCK_MILLIS : Math.pow(16, message.difficulty);
+        String rejection = admissionController.tryAdmit(expectedHashes, hashesPerSecond);
+        if (rejection != null) {
+            return rejected(message.operation, "Adding the block", rejection, expectedHashes, hashesPerSecond);
+        }
+
+        long timeout = miningTimeout(message.timeoutMillis);
+        MiningCancellation cancellation = MiningCancellation.withTimeout(timeout);
+        Block newBlock;
+        Timestamp t0 = BlockChain.getTime();
+        Timestamp t1;
+        Timestamp t2;
+        try (ClientDisconnectWatcher watcher = watch(clientSocket, cancellation)) {
+            // Wait for the turn of this request; the chain is only read once it is, so the previous hash is current
+            try {
+                miningScheduler.acquire(waitClass(message.difficulty), AdmissionController.estimateMillis(
+                        expectedHashes, hashesPerSecond), cancellation);
+            } catch (MiningCancelledException e) {
+                return miningStopped(message.operation, "Waiting to add the block", e, timeout, t0);
+            }
+            try {
+                t1 = BlockChain.getTime();
+                try {
+                    newBlock = mineAndAppend(message.transactionData, message.difficulty, cancellation);
+                } catch (MiningCancelledException e) {
+                    return miningStopped(message.operation, "Adding the block", e, timeout, t0);
+                }
+                t2 = BlockChain.getTime();
+            } finally {
+                miningScheduler.release();
+            }
+        } finally {
+            admissionController.release(expectedHashes);
+        }
         double timeDifference = t2.getTime() - t1.getTime();
 
         // Create response string
-        response = "Total execution time to add this block was " + (int)timeDifference + " milliseconds";
-        System.out.println("Setting response to " + response);
+        String response = "Total execution time to add this block was " + (int)timeDifference + " milliseconds";
+        if (difficultyController != null) {
+            difficultyController.record(newBlock, (long) timeDifference);
+            response += " (adaptive difficulty " + newBlock.getDifficulty() + ", expected "
+                    + (long) newBlock.getExpectedHashes() + " hashes, target " + TARGET_BLOCK_MILLIS + " milliseconds)";
+        }
+        ServerLog.info("Setting response to ", response);
+        if (peerSync != null) {
+            peerSync.announce();
+        }
         // Create a NormalResponseMessage
-        responseMessage = new NormalResponseMessage(message.operation, response);
-        json_response = gson.toJson(responseMessage);
+        ResponseMessage responseMessage = new NormalResponseMessage(message.operation, response);
+        String json_response = toJson(responseMessage);
         return json_response;
     }
 
     /**
 
      Verifies the validity of the blockchain and generates a response message indicating the result
-     and the time taken to verify.
-     @param message A NormalRequestMessage object containing the request operation and message.
+     and the time taken to verify. Verification starts from the latest checkpoint unless the request asks for
+     a full audit.
+     @param message A VerifyRequestMessage object containing the request operation and whether to audit every Block.
      @return A JSON response message containing the operation, the time taken to verify the chain,
-     and the verification result.
+     the verification result and the checkpoint verification started from.
      */
-    public static String verifyBlockChain(NormalRequestMessage message) {
+    public static String verifyBlockChain(VerifyRequestMessage message) {
 
-        Timestamp t1 = blockChain.getTime();
-        // Compute chain verification result
-        String chainVerificationResult = blockChain.isChainValid();
-        Timestamp t2 = blockChain.getTime();
+        Timestamp t1;
+        Timestamp t2;
+        String chainVerificationResult;
+        int checkpoint;
+        synchronized (blockChain) {
+            t1 = BlockChain.getTime();
+            // Compute chain verification result
+            chainVerificationResult = blockChain.isChainValid(message.fullAudit);
+            t2 = BlockChain.getTime();
+            checkpoint = blockChain.getLastVerificationStart();
+        }
         double timeDifference = t2.getTime() - t1.getTime();
 
         // If the result of chain verification is true
         if (chainVerificationResult.equals("TRUE")) {
-            System.out.println("Chain verification: " + chainVerificationResult);
+            ServerLog.info("Chain verification: TRUE");
         }
         // If the result of chain verification is false
         else {
-            System.out.println("Chain verification: FALSE");
-            System.out.println(chainVerificationResult);
+            ServerLog.info("Chain verification: FALSE");
+            ServerLog.info(chainVerificationResult);
         }
         // Define response message
-        response = "Total execution time to verify the chain was " + (int)timeDifference + " milliseconds";
+        String response = "Total execution time to verify the chain was " + (int)timeDifference + " milliseconds";
+        response += message.fullAudit ? " (full audit)" : checkpoint < 0 ? " (from block 0)"
+                : " (from the checkpoint at block " + checkpoint + ")";
         // Display time required to verify to user
-        System.out.println("Total execution time required to verify the chain was " + (int)timeDifference + " milliseconds");
+        ServerLog.info(() -> "Total execution time required to verify the chain was " + (int)timeDifference + " milliseconds");
         // Display response to user
-        System.out.println("Setting response to " + response);
+        ServerLog.info("Setting response to ", response);
         // Create a VerificationResponseMessage
-        responseMessage = new VerificationResponseMessage(message.operation, response, chainVerificationResult);
-        json_response = gson.toJson(responseMessage);
+        ResponseMessage responseMessage = new VerificationResponseMessage(message.operation, response, chainVerificationResult,
+                checkpoint, message.fullAudit);
+        String json_response = toJson(responseMessage);
         return json_response;
     }
 
@@ -249,9 +726,223 @@ public class ServerTCP {
      * @return JSON response
      */
     public static String viewBlockChain() {
-        // Convert blockChain object to JSON string format
-        json_response = blockChain.toString(); // would be a json message
-        return json_response;
+        // Convert blockChain object to JSON string format; a kept one is served without holding the chain
+        String cached = viewCache.peek(blockChain.getVersion());
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (blockChain) {
+            // The whole chain is only serialized again after it changed
+            return viewCache.get(blockChain.getVersion(), () -> serialize(blockChain::toString)); // would be a json message
+        }
+    }
+
+    /**
+     Answers the requests of a batch in order. The Blocks of the add requests are mined back to back, after the
+     batch got one turn from the MiningScheduler; the admission check and the mining deadline apply to the batch
+     as a whole. Each Block is added with mineAndAppend(), like an add request on its own, so other requests
+     go on while the batch mines. If mining stops, the Blocks already added stay and the remaining add requests
+     fail, while the other requests are still answered.
+     @param message a BatchRequestMessage holding the requests
+     @param clientSocket the connection of the client to watch while mining, or null to only apply the deadline
+     @return a JSON string containing a BatchResponseMessage, a RejectedResponseMessage if the batch was not
+     accepted, or a TimeoutResponseMessage if it stopped before its turn to mine
+     */
+    // The disconnect watcher is only opened to be closed when mining ends, the body never uses it
+    @SuppressWarnings("try")
+    public static String runBatch(BatchRequestMessage message, Socket clientSocket) {
+        long start = System.nanoTime();
+        List<JsonObject> requests = message.requests == null ? Collections.emptyList() : message.requests;
+        // Estimate the cost of all the Blocks before doing any work for them
+        double hashesPerSecond = difficultyController != null
+                ? difficultyController.getHashesPerMilli() * 1000 : blockChain.getHashesPerSecond();
+        double expectedHashes = 0;
+        int adds = 0;
+        for (JsonObject request : requests) {
+            if (operationOf(request) == 1) {
+                adds++;
+                expectedHashes += difficultyController != null
+                        ? difficultyController.getHashesPerMilli() * TARGET_BLOCK_MILLIS
+                        : Math.pow(16, gson.fromJson(request, AddRequestMessage.class).difficulty);
+            }
+        }
+        boolean mines = adds > 0 && follower == null;
+        if (mines) {
+            String rejection = admissionController.tryAdmit(expectedHashes, hashesPerSecond);
+            if (rejection != null) {
+                return rejected(message.operation, "Adding the block", rejection, expectedHashes, hashesPerSecond);
+            }
+        }
+
+        long timeout = miningTimeout(message.timeoutMillis);
+        MiningCancellation cancellation = MiningCancellation.withTimeout(timeout);
+        Timestamp t0 = BlockChain.getTime();
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        int blocksAdded = 0;
+        try (ClientDisconnectWatcher watcher = mines ? watch(clientSocket, cancellation) : null) {
+            if (mines) {
+                try {
+                    miningScheduler.acquire("batch", AdmissionController.estimateMillis(expectedHashes, hashesPerSecond),
+                            cancellation);
+                } catch (MiningCancelledException e) {
+                    return miningStopped(message.operation, "Waiting to run the batch", e, timeout, t0);
+                }
+            }
+            try {
+                // Once mining stopped, the remaining add requests fail with the same reason
+                String stopped = null;
+                for (JsonObject request : requests) {
+                    long itemStart = System.nanoTime();
+                    BatchItemResult result = new BatchItemResult(operationOf(request));
+                    Block newBlock = null;
+                    if (result.operation != 1) {
+                        // Each of these holds the chain only while it answers
+                        String response = answerInBatch(result.operation, request);
+                        if (response == null) {
+                            result.error = "Operation " + result.operation + " cannot be part of a batch";
+                        } else {
+                            result.response = JsonParser.parseString(response);
+                        }
+                    } else if (follower != null) {
+                        result.error = "This server is a read-only follower; send changes to the leader at " + LEADER;
+                    } else if (stopped != null) {
+                        result.error = stopped;
+                    } else {
+                        AddRequestMessage add = gson.fromJson(request, AddRequestMessage.class);
+                        String invalid = invalidData(add.transactionData);
+                        if (invalid != null) {
+                            result.error = invalid;
+                        } else {
+                            try {
+                                newBlock = mineAndAppend(add.transactionData, add.difficulty, cancellation);
+                                result.index = newBlock.getIndex();
+                                result.hash = newBlock.calculateHash();
+                                blocksAdded++;
+                            } catch (MiningCancelledException e) {
+                                stopped = "Mining was stopped: " + (e.isTimedOut()
+                                        ? "mining took longer than " + timeout + " milliseconds" : e.getReason());
+                                result.error = stopped;
+                            }
+                        }
+                    }
+                    result.elapsedMillis = (System.nanoTime() - itemStart) / 1e6;
+                    if (result.index != null && difficultyController != null) {
+                        difficultyController.record(newBlock, (long) result.elapsedMillis);
+                    }
+                    results.add(result);
+                }
+            } finally {
+                if (mines) {
+                    miningScheduler.release();
+                }
+            }
+        } finally {
+            if (mines) {
+                admissionController.release(expectedHashes);
+            }
+        }
+        if (blocksAdded > 0 && peerSync != null) {
+            peerSync.announce();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e6;
+        int answered = results.size();
+        int added = blocksAdded;
+        ServerLog.info(() -> "Setting response to a batch of " + answered + " requests, " + added
+                + " blocks added in " + (long) elapsed + " milliseconds");
+        return toJson(new BatchResponseMessage(message.operation, results, blocksAdded, elapsed));
+    }
+
+    /**
+     Reads the operation of a request in a batch.
+     @param request the JSON request
+     @return its operation, or -1 if it has none
+     */
+    private static int operationOf(JsonObject request) {
+        return request.has("operation") ? request.get("operation").getAsInt() : -1;
+    }
+
+    /**
+     Answers a request of a batch that does not add a Block, like handleClient() would on its own.
+     @param operation the operation of the request
+     @param request the JSON request
+     @return the JSON response, or null if the operation cannot be part of a batch
+     */
+    private static String answerInBatch(int operation, JsonObject request) {
+        switch (operation) {
+            case 0: return viewBlockChainStatus(operation);
+            case 2: return verifyBlockChain(gson.fromJson(request, VerifyRequestMessage.class));
+            case 3: return viewBlockChain();
+            case 7:
+            case 8: return findBlocks(gson.fromJson(request, LookupRequestMessage.class));
+            case 9: return viewBlockRange(gson.fromJson(request, RangeRequestMessage.class));
+            default: return null;
+        }
+    }
+
+    /**
+     Returns how often the status and view responses were answered from their caches.
+     @param operation the operation code, 16
+     @return a JSON string containing a CacheStatsResponseMessage
+     */
+    public static String viewCacheStats(int operation) {
+        Map<String, ResponseCache.Stats> stats = new java.util.TreeMap<>();
+        stats.put("status", statusCache.getStats());
+        stats.put("view", viewCache.getStats());
+        return toJson(new CacheStatsResponseMessage(operation, stats));
+    }
+
+    /**
+     Looks up Blocks through the indexes of the chain: operation 7 finds the Block with the given hash,
+     operation 8 finds the Blocks holding the given transaction data, or else the given transaction ID.
+     @param message a LookupRequestMessage holding the hash, transaction data or transaction ID to look for
+     @return a JSON response containing a LookupResponseMessage
+     */
+    public static String findBlocks(LookupRequestMessage message) {
+        List<Block> blocks = new ArrayList<>();
+        String response;
+        synchronized (blockChain) {
+            if (message.operation == 7) {
+                Block block = null;
+                try {
+                    block = message.hash == null ? null : blockChain.findBlockByHash(Hash256.fromHex(message.hash));
+                } catch (IllegalArgumentException e) {
+                    // Not a hash, so no Block has it
+                }
+                if (block != null) {
+                    blocks.add(block);
+                }
+                response = block == null ? "No block has hash " + message.hash
+                        : "Block " + block.getIndex() + " has hash " + message.hash;
+            } else {
+                String id = message.transactionData != null
+                        ? BlockChain.transactionId(message.transactionData) : message.transactionId;
+                if (id != null) {
+                    blocks.addAll(blockChain.findBlocksByTransactionId(id));
+                }
+                response = blocks.size() + " block(s) hold transaction " + id;
+            }
+        }
+        // Blocks hold timestamps, which toJson() formats like the chain view
+        return toJson(new LookupResponseMessage(message.operation, response, blocks));
+    }
+
+    /**
+     Returns one page of the Blocks mined in a time range. Only the Blocks of the page are serialized, so the
+     cost is O(log n + page size) rather than that of viewing the whole chain.
+     @param message a RangeRequestMessage holding the range, the offset into it and the page size
+     @return a JSON response containing a RangeResponseMessage
+     */
+    public static String viewBlockRange(RangeRequestMessage message) {
+        int limit = message.limit <= 0 ? MAX_PAGE_SIZE : Math.min(message.limit, MAX_PAGE_SIZE);
+        synchronized (blockChain) {
+            List<Block> range = blockChain.getBlocksBetween(new Timestamp(message.fromMillis),
+                    new Timestamp(message.toMillis));
+            int start = Math.min(Math.max(message.offset, 0), range.size());
+            int end = Math.min(start + limit, range.size());
+            int nextOffset = end < range.size() ? end : -1;
+            // Serialize while holding the chain, a repair could otherwise change the Blocks halfway
+            return toJson(new RangeResponseMessage(message.operation, range.subList(start, end), range.size(), nextOffset));
+        }
     }
 
     /**
@@ -264,14 +955,29 @@ public class ServerTCP {
         int blockID = message.blockID;
         // Stores corrupted data to be stored in the Block
         String newData = message.data;
-        // Corrupt block
-        blockChain.getBlock(blockID).setData(newData);
-        // Define response message
-        response = "Block " + blockID + " now holds " + blockChain.getBlock(blockID).getData();
-        System.out.println(response);
+        // Data that UTF-8 cannot keep would be stored as something else; refuse it like an add request
+        String invalid = newData == null ? "Transaction data is missing" : invalidData(newData);
+        if (invalid != null) {
+            String response = "Corrupting the block was rejected: " + invalid;
+            ServerLog.info("Setting response to ", response);
+            return toJson(new NormalResponseMessage(message.operation, response));
+        }
+        String response;
+        synchronized (blockChain) {
+            try {
+                // Corrupt block
+                blockChain.corruptBlock(blockID, newData);
+                // Define response message
+                response = "Block " + blockID + " now holds " + blockChain.getBlock(blockID).getData();
+            } catch (IllegalStateException e) {
+                // Pruned Blocks have no data left to corrupt
+                response = e.getMessage();
+            }
+        }
+        ServerLog.info(response);
         // Create a NormalResponseMessage
-        responseMessage = new NormalResponseMessage(message.operation, response);
-        json_response = gson.toJson(responseMessage);
+        ResponseMessage responseMessage = new NormalResponseMessage(message.operation, response);
+        String json_response = toJson(responseMessage);
         return json_response;
     }
 
@@ -283,17 +989,373 @@ public class ServerTCP {
      @return a JSON string containing a NormalResponseMessage object with the response message to the client
      */
     public static String repairBlockChain(NormalRequestMessage message) {
+        return repairBlockChain(message, null);
+    }
+
+    /**
+     Repairs the blockchain like repairBlockChain(NormalRequestMessage), but gives up re-mining when the
+     server's mining limit passes or the client disconnects. Like an add request, the repair is admitted on its
+     estimated cost and waits for its turn from the MiningScheduler; each Block is re-mined without holding the
+     chain, so other requests are answered meanwhile.
+     @param message a NormalRequestMessage object representing the request message from the client
+     @param clientSocket the connection of the client to watch while mining, or null to only apply the deadline
+     @return a JSON string containing a NormalResponseMessage, a RejectedResponseMessage if the repair was not
+     accepted, or a TimeoutResponseMessage if re-mining was stopped
+     */
+    // The disconnect watcher is only opened to be closed when mining ends, the body never uses it
+    @SuppressWarnings("try")
+    public static String repairBlockChain(NormalRequestMessage message, Socket clientSocket) {
 
-        Timestamp t1 = blockChain.getTime();
-        // Repair block chain
-        blockChain.repairChain();
-        Timestamp t2 = blockChain.getTime();
+        // Estimate the cost of re-mining before doing any work for it, like an add request
+        double hashesPerSecond;
+        double expectedHashes;
+        synchronized (blockChain) {
+            hashesPerSecond = difficultyController != null
+                    ? difficultyController.getHashesPerMilli() * 1000 : blockChain.getHashesPerSecond();
+            expectedHashes = blockChain.getRepairExpectedHashes();
+        }
+        String rejection = admissionController.tryAdmit(expectedHashes, hashesPerSecond);
+        if (rejection != null) {
+            return rejected(message.operation, "Repairing the chain", rejection, expectedHashes, hashesPerSecond);
+        }
+
+        long timeout = miningTimeout(0);
+        MiningCancellation cancellation = MiningCancellation.withTimeout(timeout);
+        Timestamp t0 = BlockChain.getTime();
+        Timestamp t1;
+        Timestamp t2;
+        try (ClientDisconnectWatcher watcher = watch(clientSocket, cancellation)) {
+            // Take a turn like an add request, so that no other request mines while the chain is re-mined
+            try {
+                miningScheduler.acquire("repair", AdmissionController.estimateMillis(expectedHashes, hashesPerSecond),
+                        cancellation);
+            } catch (MiningCancelledException e) {
+                return miningStopped(message.operation, "Waiting to repair the chain", e, timeout, t0);
+            }
+            try {
+                t1 = BlockChain.getTime();
+                // The chain is only held to find the next Block to re-mine and to put it back, one Block at a time
+                int from = 0;
+                while (true) {
+                    Block block;
+                    long version;
+                    synchronized (blockChain) {
+                        long before = blockChain.getVersion();
+                        block = blockChain.nextBlockToRepair(from);
+                        version = blockChain.getVersion();
+                        if (version != before) {
+                            // Fixing the links changed Blocks even when nothing had to be re-mined
+                            chainChanged(true);
+                        }
+                        if (block == null) {
+                            t2 = BlockChain.getTime();
+                            break;
+                        }
+                    }
+                    Hash256 hash;
+                    try {
+                        hash = blockChain.mineBlock(block, cancellation);
+                    } catch (MiningCancelledException e) {
+                        return miningStopped(message.operation, "Repairing the chain", e, timeout, t1);
+                    }
+                    synchronized (blockChain) {
+                        if (blockChain.getVersion() != version) {
+                            // A corrupt request or a peer's chain changed the chain meanwhile; check it from the start
+                            from = 0;
+                            continue;
+                        }
+                        blockChain.putRepairedBlock(block, hash);
+                        chainChanged(true);
+                        from = block.getIndex();
+                    }
+                }
+            } finally {
+                miningScheduler.release();
+            }
+        } finally {
+            admissionController.release(expectedHashes);
+        }
         double timeDifference = t2.getTime() - t1.getTime();
         // Define response message
-        response = "Total execution time required to repair the chain was " + (int)timeDifference + " milliseconds";
+        String response = "Total execution time required to repair the chain was " + (int)timeDifference + " milliseconds";
+        if (peerSync != null) {
+            peerSync.announce();
+        }
         // Create a NormalResponseMessage
-        responseMessage = new NormalResponseMessage(message.operation, response);
-        json_response = gson.toJson(responseMessage);
+        ResponseMessage responseMessage = new NormalResponseMessage(message.operation, response);
+        String json_response = toJson(responseMessage);
         return json_response;
     }
+
+    /**
+     Sends a follower the Blocks it does not have yet, waiting up to the requested time for a new one if
+     there are none. The response holds at most MAX_PAGE_SIZE Blocks.
+     @param message a ReplicateRequestMessage with the position of the first Block the follower does not have
+     @return a JSON string containing a ReplicateResponseMessage
+     */
+    public static String replicate(ReplicateRequestMessage message) {
+        long waitMillis = Math.min(Math.max(message.waitMillis, 0), MAX_REPLICATION_WAIT_MILLIS);
+        long deadline = System.currentTimeMillis() + waitMillis;
+        synchronized (blockChain) {
+            // Waiting releases the chain; chainChanged() wakes the follower when a Block is added
+            long remaining = waitMillis;
+            while (blockChain.getChainSize() == message.fromIndex && remaining > 0) {
+                try {
+                    blockChain.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                remaining = deadline - System.currentTimeMillis();
+            }
+            int size = blockChain.getChainSize();
+            int from = message.fromIndex;
+            if (from < 0 || from > size) {
+                // The follower has Blocks this chain does not, it has to start again
+                return toJson(new ReplicateResponseMessage(message.operation, Collections.emptyList(),
+                        Collections.emptyList(), null, size));
+            }
+            int end = Math.min(size, from + MAX_PAGE_SIZE);
+            List<Block> blocks = new ArrayList<>(end - from);
+            for (int i = from; i < end; i++) {
+                blocks.add(blockChain.getBlock(i));
+            }
+            // The hash the chain links to Block from - 1 with: the next Block's previous hash, or the chain hash
+            Hash256 previousHash = from < size ? blockChain.getBlockStore().getPreviousHash(from)
+                    : blockChain.getChainHash();
+            // Serialize while holding the chain, a repair could otherwise change the Blocks halfway
+            return toJson(new ReplicateResponseMessage(message.operation, blocks,
+                    new ArrayList<>(appendedMillis.subList(from, end)), previousHash, size));
+        }
+    }
+
+    /**
+     Returns the tip of the chain, which a peer compares with its own to decide whether to sync.
+     @param operation the operation code, 12
+     @return a JSON string containing a TipResponseMessage
+     */
+    public static String viewTip(int operation) {
+        synchronized (blockChain) {
+            return toJson(new TipResponseMessage(operation, blockChain.getChainSize(), blockChain.getChainHash(),
+                    blockChain.getTotalExpectedHashes(), blockChain.getTotalDifficulty()));
+        }
+    }
+
+    /**
+     Returns the headers of the Blocks a peer asks for, at most MAX_SYNC_BATCH.
+     @param message a SyncRequestMessage with the position of the first Block and the number of Blocks
+     @return a JSON string containing a HeadersResponseMessage
+     */
+    public static String viewHeaders(SyncRequestMessage message) {
+        synchronized (blockChain) {
+            int from = Math.max(message.fromIndex, 0);
+            int end = Math.min(blockChain.getChainSize(), from + Math.min(Math.max(message.count, 0), MAX_SYNC_BATCH));
+            List<BlockHeader> headers = new ArrayList<>(Math.max(end - from, 0));
+            for (int i = from; i < end; i++) {
+                headers.add(blockChain.getHeader(i));
+            }
+            return toJson(new HeadersResponseMessage(message.operation, headers));
+        }
+    }
+
+    /**
+     Returns the transaction data of the Blocks a peer asks for, at most MAX_SYNC_BATCH.
+     @param message a SyncRequestMessage with the position of the first Block and the number of Blocks
+     @return a JSON string containing a BodiesResponseMessage, with null for pruned Blocks
+     */
+    public static String viewBodies(SyncRequestMessage message) {
+        synchronized (blockChain) {
+            BlockStore store = blockChain.getBlockStore();
+            int from = Math.max(message.fromIndex, 0);
+            int end = Math.min(store.size(), from + Math.min(Math.max(message.count, 0), MAX_SYNC_BATCH));
+            List<String> bodies = new ArrayList<>(Math.max(end - from, 0));
+            for (int i = from; i < end; i++) {
+                bodies.add(store.isPruned(i) ? null : store.get(i).getData());
+            }
+            return toJson(new BodiesResponseMessage(message.operation, bodies));
+        }
+    }
+
+    /**
+     Handles a peer announcing its tip: the server syncs with the peer in the background if its chain is heavier.
+     @param message an AnnounceRequestMessage with the address and the tip of the peer
+     @return a JSON string containing a NormalResponseMessage
+     */
+    public static String receiveAnnouncement(AnnounceRequestMessage message) {
+        if (peerSync == null) {
+            return toJson(new NormalResponseMessage(message.operation, "This server has no peers"));
+        }
+        peerSync.onAnnounce(message.address, message.totalWork);
+        return toJson(new NormalResponseMessage(message.operation, "Announcement of " + message.address + " received"));
+    }
+
+    /**
+     Records when Blocks were added or replaced and wakes the followers waiting for new Blocks.
+     The caller holds the chain.
+     @param rewritten true if Blocks already in the chain may have changed, which makes followers copy them again
+     */
+    static void chainChanged(boolean rewritten) {
+        long now = System.currentTimeMillis();
+        if (rewritten) {
+            Collections.fill(appendedMillis, now);
+            // Blocks may also have been rolled back
+            while (appendedMillis.size() > blockChain.getChainSize()) {
+                appendedMillis.remove(appendedMillis.size() - 1);
+            }
+        }
+        while (appendedMillis.size() < blockChain.getChainSize()) {
+            appendedMillis.add(now);
+        }
+        blockChain.notifyAll();
+    }
+
+    /**
+     Sets the hashes per second of the chain. A normal start measures them before serving, and saves them if
+     the server has a state directory. A fast start reuses the ones saved by an earlier run on this computer;
+     without them it serves with a rough measurement, improved in the background over the first second, and
+     then makes the full one there too, while it may already be mining, so that one may come out a
+     little low.
+     */
+    static void calibrate() {
+        int saved = FAST_START && stateFile != null ? stateFile.readCalibration() : 0;
+        if (saved > 0) {
+            blockChain.setHashesPerSecond(saved);
+            ServerLog.info(() -> "Reusing the calibration of " + saved + " hashes per second");
+            return;
+        }
+        if (!FAST_START) {
+            blockChain.computeHashesPerSecond();
+            if (stateFile != null) {
+                stateFile.writeCalibration(blockChain.getHashesPerSecond());
+            }
+            return;
+        }
+        blockChain.setHashesPerSecond(blockChain.measureHashesPerSecond(QUICK_CALIBRATION_HASHES));
+        Thread calibration = new Thread(() -> {
+            // Hashing speeds up as the JIT compiles it, so follow the median of the last three short rounds
+            int[] rounds = new int[3];
+            long end = System.currentTimeMillis() + QUICK_CALIBRATION_MILLIS;
+            for (int round = 0; System.currentTimeMillis() < end; round++) {
+                rounds[round % 3] = blockChain.measureHashesPerSecond(QUICK_CALIBRATION_HASHES);
+                if (round >= 2) {
+                    int median = Math.max(Math.min(rounds[0], rounds[1]),
+                            Math.min(Math.max(rounds[0], rounds[1]), rounds[2]));
+                    synchronized (blockChain) {
+                        blockChain.setHashesPerSecond(median);
+                    }
+                }
+            }
+            int hashesPerSecond = blockChain.measureHashesPerSecond(2000000);
+            synchronized (blockChain) {
+                blockChain.setHashesPerSecond(hashesPerSecond);
+            }
+            if (stateFile != null) {
+                stateFile.writeCalibration(hashesPerSecond);
+            }
+            ServerLog.info(() -> "Calibrated " + hashesPerSecond + " hashes per second");
+        }, "calibration");
+        calibration.setDaemon(true);
+        calibration.start();
+    }
+
+    /**
+     Computes the mining time limit of a request.
+     @param requested the limit asked for by the client in milliseconds, 0 or less for none
+     @return the requested limit, but never more than MAX_MINING_MILLIS
+     */
+    static long miningTimeout(long requested) {
+        return requested > 0 ? Math.min(requested, MAX_MINING_MILLIS) : MAX_MINING_MILLIS;
+    }
+
+    /**
+     Starts watching the client's connection while mining.
+     @param clientSocket the connection of the client, or null if there is none to watch
+     @param cancellation cancelled when the client disconnects
+     @return the watcher, or null if there is no connection; try-with-resources accepts null
+     */
+    static ClientDisconnectWatcher watch(Socket clientSocket, MiningCancellation cancellation) {
+        if (clientSocket == null) {
+            return null;
+        }
+        ClientDisconnectWatcher watcher = new ClientDisconnectWatcher(clientSocket, currentRequests.get(), cancellation);
+        currentWatcher.set(watcher);
+        return watcher;
+    }
+
+    /**
+     Waits until the disconnect watcher of the last request of this handler thread stopped reading the
+     client's connection, so that it cannot take the first bytes of the next request.
+     */
+    static void awaitWatcher() {
+        ClientDisconnectWatcher watcher = currentWatcher.get();
+        if (watcher != null) {
+            currentWatcher.remove();
+            watcher.awaitStopped();
+        }
+    }
+
+    /**
+     Creates the response for a request whose mining was stopped.
+     @param operation the operation code of the request
+     @param action what the server was doing, for the response text
+     @param e the exception thrown by the mining engine
+     @param timeout the mining time limit of the request in milliseconds
+     @param start when mining started
+     @return a JSON string containing a TimeoutResponseMessage
+     */
+    static String miningStopped(int operation, String action, MiningCancelledException e, long timeout, Timestamp start) {
+        long elapsed = BlockChain.getTime().getTime() - start.getTime();
+        String reason = e.isTimedOut() ? "mining took longer than " + timeout + " milliseconds" : e.getReason();
+        String response = action + " was stopped after " + elapsed + " milliseconds: " + reason;
+        ServerLog.info("Setting response to ", response);
+        ResponseMessage responseMessage = new TimeoutResponseMessage(operation, response, reason, timeout, elapsed);
+        return toJson(responseMessage);
+    }
+
+    /**
+     Returns the class the wait time of an add request is reported under in the status response.
+     @param difficulty the difficulty the client asked for
+     @return "adaptive" when the server picks the work of each Block, otherwise "difficulty-" and the difficulty
+     */
+    static String waitClass(int difficulty) {
+        return difficultyController != null ? "adaptive" : "difficulty-" + difficulty;
+    }
+
+    /**
+     Checks that the transaction data of an add request can be hashed and stored as it was sent.
+     @param data the transaction data, or null
+     @return why the data cannot be added, or null if it can
+     */
+    static String invalidData(String data) {
+        try {
+            if (data != null) {
+                Block.dataBytes(data);
+            }
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     Creates the response for a request that mines and was not accepted.
+     @param operation the operation code of the request
+     @param action what was rejected, e.g. "Adding the block"
+     @param reason why the request was rejected
+     @param expectedHashes the expected hashes of the request's Block
+     @param hashesPerSecond the hashrate the estimate was based on
+     @return a JSON string containing a RejectedResponseMessage
+     */
+    static String rejected(int operation, String action, String reason, double expectedHashes, double hashesPerSecond) {
+        long estimate = (long) AdmissionController.estimateMillis(expectedHashes, hashesPerSecond);
+        double outstanding = admissionController.getOutstandingHashes();
+        // Too expensive on its own: retrying will never help. Otherwise: wait until the outstanding work is done
+        long retryAfter = estimate > admissionController.getMaxEstimatedMillis()
+                ? -1 : (long) AdmissionController.estimateMillis(outstanding, hashesPerSecond);
+        String response = action + " was rejected: " + reason;
+        ServerLog.info("Setting response to ", response);
+        ResponseMessage responseMessage = new RejectedResponseMessage(operation, response, reason, estimate,
+                admissionController.getMaxEstimatedMillis(), (long) outstanding, retryAfter);
+        return toJson(responseMessage);
+    }
 }
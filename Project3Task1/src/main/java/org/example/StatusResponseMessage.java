@@ -0,0 +1,52 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ Represents a response message sent by the server containing information about the status of the blockchain.
+ Inherits from ResponseMessage class and contains instance variables related to blockchain's status.
+ */
+public class StatusResponseMessage extends ResponseMessage {
+    int chainSize;
+    int totalHashes;
+    int totalDifficulty;
+    BigInteger recentNonce;
+    int difficulty;
+    int hashesPerSecond;
+    Hash256 chainHash;
+    Map<String, MiningScheduler.WaitTimes> waitTimes;
+    // Stores how far behind its leader a follower is, null on a leader
+    ReplicationFollower.ReplicationStatus replication;
+    /**
+     Constructor to initialize the values of the instance variables
+     @param choice The selection number of the response
+     @param chainSize The size of the blockchain
+     @param chainHash The hash of the blockchain
+     @param totalHashes The total number of hashes computed in the blockchain
+     @param totalDifficulty The total difficulty of the blockchain
+     @param recentNonce The recent nonce computed in the blockchain
+     @param difficulty The difficulty of the blockchain
+     @param hashesPerSecond The number of hashes computed per second
+     @param waitTimes The time add requests waited for their turn to mine, per class of request
+     */
+    StatusResponseMessage (int choice, int chainSize, Hash256 chainHash, int totalHashes, int totalDifficulty,
+                           BigInteger recentNonce, int difficulty, int hashesPerSecond,
+                           Map<String, MiningScheduler.WaitTimes> waitTimes) {
+        super.choice = choice;
+        this.chainSize = chainSize;
+        this.chainHash = chainHash;
+        this.totalHashes = totalHashes;
+        this.totalDifficulty = totalDifficulty;
+        this.recentNonce = recentNonce;
+        this.difficulty = difficulty;
+        this.hashesPerSecond = hashesPerSecond;
+        this.waitTimes = waitTimes;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ This class represents a request of a peer for the headers or the data of the Blocks from a position on.
+ */
+public class SyncRequestMessage extends RequestMessage {
+    // Stores the position of the first Block to send
+    int fromIndex;
+    // Stores the most Blocks to send; the server caps it
+    int count;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the request message, 13 for headers or 14 for data
+     @param fromIndex The position of the first Block to send
+     @param count The most Blocks to send
+     */
+    SyncRequestMessage (int operation, int fromIndex, int count) {
+        super.operation = operation;
+        this.fromIndex = fromIndex;
+        this.count = count;
+    }
+}
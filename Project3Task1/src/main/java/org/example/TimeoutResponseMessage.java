@@ -0,0 +1,36 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ A subclass of ResponseMessage sent instead of the usual response when the server stopped mining,
+ either because the mining deadline passed or because the client disconnected.
+ */
+public class TimeoutResponseMessage extends ResponseMessage {
+    String response;
+    // Stores why mining was stopped
+    String reason;
+    // Stores the mining time limit that applied to the request in milliseconds
+    long timeoutMillis;
+    // Stores how long the server mined before it stopped in milliseconds
+    long elapsedMillis;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number that the user selected
+     @param response the response from the server
+     @param reason why mining was stopped
+     @param timeoutMillis the mining time limit that applied to the request
+     @param elapsedMillis how long the server mined before it stopped
+     */
+    TimeoutResponseMessage(int choice, String response, String reason, long timeoutMillis, long elapsedMillis) {
+        super.choice = choice;
+        this.response = response;
+        this.reason = reason;
+        this.timeoutMillis = timeoutMillis;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
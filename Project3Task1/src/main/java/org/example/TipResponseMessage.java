@@ -0,0 +1,33 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ A subclass of ResponseMessage that describes the tip of a peer's chain.
+ */
+public class TipResponseMessage extends ResponseMessage {
+    int chainSize;
+    Hash256 chainHash;
+    // Stores the expected hashes of the whole chain, which decides the heaviest chain
+    double totalWork;
+    int totalDifficulty;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param choice the selection number of the response
+     @param chainSize the size of the chain
+     @param chainHash the hash of the last Block
+     @param totalWork the expected hashes of the whole chain
+     @param totalDifficulty the summed difficulty of the chain
+     */
+    TipResponseMessage (int choice, int chainSize, Hash256 chainHash, double totalWork, int totalDifficulty) {
+        super.choice = choice;
+        this.chainSize = chainSize;
+        this.chainHash = chainHash;
+        this.totalWork = totalWork;
+        this.totalDifficulty = totalDifficulty;
+    }
+}
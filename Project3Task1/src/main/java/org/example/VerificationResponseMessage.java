@@ -0,0 +1,34 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ A subclass of ResponseMessage that represents a verification response message from the server.
+ */
+public class VerificationResponseMessage extends ResponseMessage {
+    String response;
+    String verificationOp;
+    // Stores the position of the checkpoint verification started from, or -1 if it checked every Block
+    int checkpoint;
+    // Stores whether the checkpoints were ignored
+    boolean fullAudit;
+    /**
+     Creates a new VerificationResponseMessage object with the specified choice, response, and verification operation.
+     @param choice the selection number that the user selected
+     @param response the response from the server for the verification request
+     @param verificationOp the verification operation that was performed by the server
+     @param checkpoint the position of the checkpoint verification started from, or -1
+     @param fullAudit whether the checkpoints were ignored
+     */
+    VerificationResponseMessage(int choice, String response, String verificationOp, int checkpoint, boolean fullAudit) {
+        super.choice = choice;
+        this.response = response;
+        this.verificationOp = verificationOp;
+        this.checkpoint = checkpoint;
+        this.fullAudit = fullAudit;
+    }
+}
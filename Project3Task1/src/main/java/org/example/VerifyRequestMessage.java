@@ -0,0 +1,25 @@
+/**
+ * Author: Siddhesh Badhan
+ * Andrew ID: sbadhan
+ * Last Modified: 10/18/2026
+ */
+
+package org.example;
+
+/**
+ This class represents a request to verify the blockchain. By default the server starts from its latest
+ checkpoint; a full audit checks every Block.
+ */
+public class VerifyRequestMessage extends RequestMessage {
+    // Stores whether the server has to ignore its checkpoints
+    boolean fullAudit;
+    /**
+     Constructor to initialize the values of the instance variables.
+     @param operation The operation code for the request message
+     @param fullAudit True to check every Block instead of starting from the latest checkpoint
+     */
+    VerifyRequestMessage (int operation, boolean fullAudit) {
+        super.operation = operation;
+        this.fullAudit = fullAudit;
+    }
+}